@@ -0,0 +1,98 @@
+package appDomain;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry that interns filenames as small integer ids, so a Word records the
+ * files it appears in as ints instead of holding a map keyed by filename.
+ * Ids are handed out in the order files are first seen and are only meaningful
+ * within one run, so Word saves filenames rather than ids when it is
+ * serialized. The registry keeps each distinct filename for the rest of the
+ * run, which is one String per file read.
+ *
+ * Looking up a filename or an id takes no lock; only registering a new
+ * filename does.
+ *
+ * @author Assignment3 Team
+ * @version 1.0
+ */
+final class FileIds {
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+    private static volatile String[] names = {};  // Replaced by a longer copy for each new filename
+    private static volatile Last last;             // Occurrences arrive file by file, so remember the last lookup
+
+    /**
+     * A filename and its id, remembered together so that a thread never sees
+     * one without the other
+     */
+    private static final class Last {
+        final String name;
+        final int id;
+
+        Last(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
+    }
+
+    private FileIds() {
+    }
+
+    /**
+     * Get the id of a filename, registering the filename if it is new
+     * @param filename the filename
+     * @return the id of the filename
+     * @throws NullPointerException if the filename is null
+     */
+    static int intern(String filename) {
+        Last cached = last;
+        if (cached != null && cached.name == filename) {
+            return cached.id;
+        }
+        Integer id = ids.get(filename);
+        if (id == null) {
+            id = register(filename);
+        }
+        last = new Last(filename, id);
+        return id;
+    }
+
+    /**
+     * Register a filename unless another thread has just done so. Its name is
+     * published before its id, so any thread given the id can look the name up.
+     * @param filename the filename
+     * @return the id of the filename
+     */
+    private static synchronized int register(String filename) {
+        Integer id = ids.get(filename);
+        if (id == null) {
+            String[] grown = Arrays.copyOf(names, names.length + 1);
+            id = names.length;
+            grown[id] = filename;
+            names = grown;
+            ids.put(filename, id);
+        }
+        return id;
+    }
+
+    /**
+     * Get the id of a filename without registering it
+     * @param filename the filename
+     * @return the id of the filename, or -1 if it has never been registered
+     */
+    static int find(String filename) {
+        Integer id = filename == null ? null : ids.get(filename);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Get the filename registered under an id
+     * @param id an id returned by intern
+     * @return the filename
+     */
+    static String name(int id) {
+        return names[id];
+    }
+}
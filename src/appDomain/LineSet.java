@@ -0,0 +1,387 @@
+package appDomain;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * The distinct line numbers a word appears on in one file, kept in ascending
+ * order without boxing any occurrence in an Integer. Lines are read in
+ * increasing order, so a new line is normally only compared with the last one
+ * recorded and appended.
+ *
+ * A line set starts as a sorted int array. Words such as "the" appear on most
+ * lines of a file, and once a set holds more than one line in 32 of the range
+ * it covers it switches to a bitmap of that range, which takes one bit per
+ * line instead of 32 and makes recording a line and taking a union of two
+ * dense sets word-at-a-time operations. A bitmap that grows to cover fewer
+ * than one line in 64 switches back to an array.
+ *
+ * @author Assignment3 Team
+ * @version 1.0
+ */
+final class LineSet {
+
+    private int[] lines;   // Sparse form: the lines in ascending order, null while dense
+    private long[] bits;   // Dense form: bit i of bits[w] is line (base + w) * 64 + i, null while sparse
+    private int base;      // First block of 64 lines covered by bits
+    private int size;
+
+    /**
+     * Create an empty line set
+     */
+    LineSet() {
+        this.lines = new int[2];
+        this.size = 0;
+    }
+
+    /**
+     * Create a line set holding a copy of another
+     * @param other the line set to copy
+     */
+    LineSet(LineSet other) {
+        if (other.bits != null) {
+            this.bits = other.bits.clone();
+            this.base = other.base;
+        } else {
+            this.lines = Arrays.copyOf(other.lines, Math.max(other.size, 1));
+        }
+        this.size = other.size;
+    }
+
+    /**
+     * Create a line set from part of an array of lines in strictly ascending
+     * order, choosing the smaller form for them
+     * @param sorted the array holding the lines
+     * @param from the index of the first line
+     * @param to the index after the last line
+     * @return a new line set holding a copy of the lines
+     */
+    static LineSet of(int[] sorted, int from, int to) {
+        LineSet set = new LineSet();
+        set.lines = Arrays.copyOfRange(sorted, from, Math.max(to, from + 1));
+        set.size = to - from;
+        set.compact();
+        return set;
+    }
+
+    /**
+     * Get the number of lines recorded
+     * @return the number of distinct lines
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Record a line unless it is already recorded. A line after the last one
+     * recorded, or equal to it, is handled in O(1), as is any line within the
+     * range of a bitmap; an earlier line in an array is placed by binary
+     * search.
+     * @param line the line number
+     * @return true if the line was added
+     */
+    boolean add(int line) {
+        if (bits != null) {
+            return addDense(line);
+        }
+        if (size == 0 || line > lines[size - 1]) {
+            if (size == lines.length && switchToDense(line)) {
+                return addDense(line);
+            }
+            append(line);
+            return true;
+        }
+        if (line == lines[size - 1]) {
+            return false; // Another occurrence on the line just recorded
+        }
+        return insert(line);
+    }
+
+    /**
+     * Record a line that comes before the last one recorded, keeping the lines
+     * in ascending order
+     * @param line the line number
+     * @return true if the line was added, false if it was already recorded
+     */
+    private boolean insert(int line) {
+        int index = Arrays.binarySearch(lines, 0, size, line);
+        if (index >= 0) {
+            return false;
+        }
+        index = -(index + 1);
+        if (size == lines.length) {
+            lines = Arrays.copyOf(lines, size + (size >> 1) + 1);
+        }
+        System.arraycopy(lines, index, lines, index + 1, size - index);
+        lines[index] = line;
+        size++;
+        return true;
+    }
+
+    /**
+     * Add a line to the end of the array, growing it if it is full
+     * @param line the line number
+     */
+    private void append(int line) {
+        if (size == lines.length) {
+            lines = Arrays.copyOf(lines, size + (size >> 1) + 1);
+        }
+        lines[size++] = line;
+    }
+
+    /**
+     * Record a line in the bitmap, widening it to cover the line, or switching
+     * back to an array if the widened bitmap would be too sparse
+     * @param line the line number
+     * @return true if the line was added
+     */
+    private boolean addDense(int line) {
+        int block = (line >> 6) - base;
+        if (block < 0 || block >= bits.length) {
+            int first = Math.min(base, line >> 6);
+            int last = Math.max(base + lastBlock(), line >> 6);
+            if ((long) last - first + 1 > size) {
+                switchToSparse();
+                return add(line);
+            }
+            widen(first, last);
+            block = (line >> 6) - base;
+        }
+
+        long mask = 1L << line; // Shifts by the low six bits of line
+        if ((bits[block] & mask) != 0) {
+            return false;
+        }
+        bits[block] |= mask;
+        size++;
+        return true;
+    }
+
+    /**
+     * Get the index of the last block of the bitmap holding a line
+     * @return the index in bits of the last non-zero block
+     */
+    private int lastBlock() {
+        int block = bits.length - 1;
+        while (block > 0 && bits[block] == 0) {
+            block--;
+        }
+        return block;
+    }
+
+    /**
+     * Widen the bitmap to cover a range of blocks. Room is left above the
+     * range, since lines are usually recorded in increasing order.
+     * @param first the first block to cover
+     * @param last the last block to cover
+     */
+    private void widen(int first, int last) {
+        int length = last - first + 1;
+        if (last >= base + bits.length) {
+            length = Math.max(length, bits.length + (bits.length >> 1) + 1);
+        }
+        long[] widened = new long[length];
+        System.arraycopy(bits, 0, widened, base - first, Math.min(bits.length, length - (base - first)));
+        bits = widened;
+        base = first;
+    }
+
+    /**
+     * Switch a full array to a bitmap if the bitmap, with the next line,
+     * would hold more than one line in 32
+     * @param next the line about to be appended
+     * @return true if the set is now dense
+     */
+    private boolean switchToDense(int next) {
+        int first = lines[0] >> 6;
+        long blocks = (long) (next >> 6) - first + 1;
+        if (blocks * 2 >= size + 1) {
+            return false;
+        }
+        bits = new long[(int) blocks];
+        base = first;
+        for (int i = 0; i < size; i++) {
+            bits[(lines[i] >> 6) - base] |= 1L << lines[i];
+        }
+        lines = null;
+        return true;
+    }
+
+    /**
+     * Switch a bitmap back to an array
+     */
+    private void switchToSparse() {
+        int[] sparse = new int[size + (size >> 1) + 1];
+        PrimitiveIterator.OfInt it = iterator();
+        for (int i = 0; i < size; i++) {
+            sparse[i] = it.nextInt();
+        }
+        lines = sparse;
+        bits = null;
+    }
+
+    /**
+     * Create the union of two line sets. Two bitmaps are combined a block of
+     * 64 lines at a time; otherwise the lines are merged in a single pass.
+     * @param first a line set
+     * @param second another line set
+     * @return a new line set holding the lines of both in ascending order
+     */
+    static LineSet union(LineSet first, LineSet second) {
+        LineSet result = new LineSet();
+        if (first.bits != null && second.bits != null) {
+            int low = Math.min(first.base, second.base);
+            int high = Math.max(first.base + first.bits.length, second.base + second.bits.length);
+            result.lines = null;
+            result.bits = new long[high - low];
+            result.base = low;
+            for (int i = 0; i < first.bits.length; i++) {
+                result.bits[first.base - low + i] = first.bits[i];
+            }
+            for (int i = 0; i < second.bits.length; i++) {
+                result.bits[second.base - low + i] |= second.bits[i];
+            }
+            for (long block : result.bits) {
+                result.size += Long.bitCount(block);
+            }
+            return result;
+        }
+
+        PrimitiveIterator.OfInt mine = first.iterator();
+        PrimitiveIterator.OfInt theirs = second.iterator();
+        result.lines = new int[Math.max(first.size + second.size, 1)];
+        int a = mine.hasNext() ? mine.nextInt() : 0;
+        int b = theirs.hasNext() ? theirs.nextInt() : 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.size || j < second.size) {
+            int comparison = i == first.size ? 1 : j == second.size ? -1 : Integer.compare(a, b);
+            if (comparison <= 0) {
+                result.lines[result.size++] = a;
+                a = ++i < first.size ? mine.nextInt() : 0;
+                if (comparison == 0) {
+                    b = ++j < second.size ? theirs.nextInt() : 0;
+                }
+            } else {
+                result.lines[result.size++] = b;
+                b = ++j < second.size ? theirs.nextInt() : 0;
+            }
+        }
+        result.compact();
+        return result;
+    }
+
+    /**
+     * Switch an array that was built all at once to a bitmap if that is
+     * smaller
+     */
+    private void compact() {
+        if (size > 1 && ((long) (lines[size - 1] >> 6) - (lines[0] >> 6) + 1) * 2 < size) {
+            int last = lines[--size];
+            switchToDense(last);
+            addDense(last);
+        }
+    }
+
+    /**
+     * Iterate over the lines in ascending order
+     * @return an iterator over the lines
+     */
+    PrimitiveIterator.OfInt iterator() {
+        if (bits == null) {
+            return Arrays.stream(lines, 0, size).iterator();
+        }
+        return new PrimitiveIterator.OfInt() {
+            private int block = 0;
+            private long remaining = bits[0]; // Bits of the current block not yet returned
+
+            @Override
+            public boolean hasNext() {
+                while (remaining == 0 && block < bits.length - 1) {
+                    remaining = bits[++block];
+                }
+                return remaining != 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more lines");
+                }
+                int line = (base + block) * 64 + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1; // Clear the lowest bit
+                return line;
+            }
+        };
+    }
+
+    /**
+     * Copy the lines into a list
+     * @return a new list of the line numbers in ascending order
+     */
+    ArrayList<Integer> toList() {
+        ArrayList<Integer> list = new ArrayList<Integer>(size);
+        PrimitiveIterator.OfInt it = iterator();
+        while (it.hasNext()) {
+            list.add(it.nextInt());
+        }
+        return list;
+    }
+
+    /**
+     * Append the lines to a report, separated by commas
+     * @param sb the report being built
+     */
+    void appendTo(StringBuilder sb) {
+        PrimitiveIterator.OfInt it = iterator();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(",");
+            sb.append(it.nextInt());
+        }
+    }
+
+    /**
+     * Write the lines as a count followed by each line number, whichever form
+     * the set is in
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    void writeTo(ObjectOutputStream out) throws IOException {
+        out.writeInt(size);
+        PrimitiveIterator.OfInt it = iterator();
+        for (int i = 0; i < size; i++) {
+            out.writeInt(it.nextInt());
+        }
+    }
+
+    /**
+     * Read lines written by writeTo, choosing the smaller form for them
+     * @param in the stream to read from
+     * @return the line set read
+     * @throws IOException if the stream cannot be read or the lines are not
+     *             in strictly ascending order
+     */
+    static LineSet readFrom(ObjectInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Negative line count: " + count);
+        }
+        LineSet set = new LineSet();
+        set.lines = new int[Math.max(Math.min(count, 1024), 1)]; // Grows as lines arrive rather than trusting count
+        for (int i = 0; i < count; i++) {
+            int line = in.readInt();
+            if (i > 0 && line <= set.lines[i - 1]) {
+                throw new InvalidObjectException("Line numbers are not in strictly ascending order");
+            }
+            set.append(line);
+        }
+        set.compact();
+        return set;
+    }
+}
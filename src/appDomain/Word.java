@@ -1,13 +1,31 @@
 package appDomain;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.PrimitiveIterator;
 
 /**
  * Word class to store word information including files and line numbers
  * where the word appears, and frequency of occurrence
  *
+ * Files are recorded by interned id (see FileIds) in the order this word was
+ * first found in them, with the line numbers for each file. Ids are handed
+ * out afresh in each run, so they say nothing about that order themselves.
+ * The map and list accessors build their results on demand.
+ *
+ * Most words appear in a single file on only a few lines, so such a word
+ * keeps no LineSet: lines is null and fileIds holds the file's id followed by
+ * its lines in ascending order. It is promoted to the full layout when it is
+ * found in a second file or on more than INLINE_LINES lines.
+ *
  * @author Assignment3 Team
  * @version 1.0
  */
@@ -15,8 +33,25 @@ public class Word implements Comparable<Word>, Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * The serialized fields are those of the original default form, so words
+     * saved with a map of files to line lists can still be read. writeObject
+     * saves a null map and follows the fields with each file and its lines.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("word", String.class),
+        new ObjectStreamField("fileLocations", HashMap.class),
+        new ObjectStreamField("totalFrequency", int.class)
+    };
+
+    private static final int[] NO_FILES = {};
+    private static final LineSet[] NO_LINES = {};
+    private static final int INLINE_LINES = 8;   // Most lines a single-file word holds in fileIds
+
     private String word;
-    private HashMap<String, ArrayList<Integer>> fileLocations; // filename -> list of line numbers
+    private transient int[] fileIds;      // Interned ids of the files the word appears in, first found first; inline, the id then the lines
+    private transient LineSet[] lines;    // Line numbers in each file, parallel to fileIds, or null when inline
+    private transient int fileCount;
     private int totalFrequency;
 
     /**
@@ -25,29 +60,194 @@ public class Word implements Comparable<Word>, Serializable {
      */
     public Word(String word) {
         this.word = word.toLowerCase(); // Store in lowercase for consistency
-        this.fileLocations = new HashMap<String, ArrayList<Integer>>();
+        this.fileIds = NO_FILES;
+        this.lines = NO_LINES;
+        this.fileCount = 0;
         this.totalFrequency = 0;
     }
 
     /**
-     * Add an occurrence of this word from a specific file and line
+     * Add an occurrence of this word from a specific file and line. Lines are
+     * expected in increasing order within a file, which takes constant time;
+     * an earlier line is still recorded, in its place in order.
      * @param filename the name of the file where word was found
      * @param lineNumber the line number where word was found
      */
     public void addOccurrence(String filename, int lineNumber) {
-        // Get or create the list of line numbers for this file
-        ArrayList<Integer> lineNumbers = fileLocations.get(filename);
-        if (lineNumbers == null) {
-            lineNumbers = new ArrayList<Integer>();
-            fileLocations.put(filename, lineNumbers);
+        record(FileIds.intern(filename), lineNumber);
+        totalFrequency++;
+    }
+
+    /**
+     * Record a line of a file unless it is already recorded, without counting
+     * an occurrence
+     * @param id the interned id of the file
+     * @param lineNumber the line number
+     */
+    private void record(int id, int lineNumber) {
+        if (fileCount == 0) {
+            // First occurrence, held inline
+            fileIds = new int[] { id, lineNumber };
+            lines = null;
+            fileCount = 1;
+        } else if (lines != null || fileIds[0] != id || !addInline(lineNumber)) {
+            if (lines == null) {
+                promote();
+            }
+
+            // Get or create the line numbers for this file
+            int index = indexOf(id);
+            if (index < 0) {
+                index = appendFile(id, new LineSet());
+            }
+
+            // Add the line number if it's not already there
+            lines[index].add(lineNumber);
         }
+    }
 
-        // Add the line number if it's not already there
-        if (!lineNumbers.contains(lineNumber)) {
-            lineNumbers.add(lineNumber);
+    /**
+     * Record a line of the single file held inline, unless it is already
+     * recorded
+     * @param line the line number
+     * @return true if the line is now recorded, false if there is no room
+     *         inline for it
+     */
+    private boolean addInline(int line) {
+        int last = fileIds.length - 1;
+        if (line == fileIds[last]) {
+            return true; // Another occurrence on the line just recorded
+        }
+        int index = last + 1;
+        if (line < fileIds[last]) {
+            index = Arrays.binarySearch(fileIds, 1, last + 1, line);
+            if (index >= 0) {
+                return true;
+            }
+            index = -(index + 1);
+        }
+        if (last == INLINE_LINES) {
+            return false;
         }
+        int[] grown = new int[fileIds.length + 1];
+        System.arraycopy(fileIds, 0, grown, 0, index);
+        grown[index] = line;
+        System.arraycopy(fileIds, index, grown, index + 1, fileIds.length - index);
+        fileIds = grown;
+        return true;
+    }
 
-        totalFrequency++;
+    /**
+     * Move the lines of the single file held inline into a LineSet
+     */
+    private void promote() {
+        LineSet lineSet = LineSet.of(fileIds, 1, fileIds.length);
+        fileIds = new int[] { fileIds[0] };
+        lines = new LineSet[] { lineSet };
+    }
+
+    /**
+     * Get the line numbers recorded at a position in the file arrays
+     * @param index the position of the file
+     * @return the line numbers, which are a copy when held inline
+     */
+    private LineSet linesAt(int index) {
+        return lines != null ? lines[index] : LineSet.of(fileIds, 1, fileIds.length);
+    }
+
+    /**
+     * Find the position of a file in the file arrays
+     * @param id the interned id of the file
+     * @return the position of the file, or -1 if the word has not been seen
+     *         in the file
+     */
+    private int indexOf(int id) {
+        if (fileCount > 0 && fileIds[fileCount - 1] == id) {
+            return fileCount - 1; // Occurrences arrive file by file
+        }
+        for (int i = 0; i < fileCount - 1; i++) {
+            if (fileIds[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add a file after the others in the file arrays, growing them if they are
+     * full
+     * @param id the interned id of the file
+     * @param lineSet the line numbers in the file
+     * @return the position of the file
+     */
+    private int appendFile(int id, LineSet lineSet) {
+        if (fileCount == fileIds.length) {
+            int capacity = fileCount + (fileCount >> 1) + 1;
+            fileIds = Arrays.copyOf(fileIds, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+        }
+        fileIds[fileCount] = id;
+        lines[fileCount] = lineSet;
+        return fileCount++;
+    }
+
+    /**
+     * Merge the occurrences recorded by another Word for the same word string into
+     * this one, for example when combining word trees built from separate batches
+     * of files. Each file's line numbers are kept in ascending order, so they
+     * are combined in a single pass without duplicates. This word's files keep
+     * their order, followed by any files only the other Word was found in.
+     * Can be passed to BSTree.merge as Word::merge; it changes this Word in place.
+     * @param other the Word whose occurrences are added to this one
+     * @return this Word, holding the occurrences of both
+     * @throws IllegalArgumentException if the other Word is for a different word
+     */
+    public Word merge(Word other) throws IllegalArgumentException {
+        if (!word.equals(other.word)) {
+            throw new IllegalArgumentException("Cannot merge " + other.word + " into " + word);
+        }
+        if (other == this) {
+            return this;
+        }
+        if (lines == null) {
+            promote();
+        }
+
+        // Find the other Word's files among these by id, packing each id with
+        // its position here
+        long[] byId = new long[fileCount];
+        for (int i = 0; i < fileCount; i++) {
+            byId[i] = (long) fileIds[i] << 32 | i;
+        }
+        Arrays.sort(byId);
+        for (int j = 0; j < other.fileCount; j++) {
+            int id = other.fileIds[j];
+            int found = Arrays.binarySearch(byId, (long) id << 32);
+            if (found < 0) {
+                found = -(found + 1); // The first entry for the id, if there is one
+            }
+            if (found < byId.length && (int) (byId[found] >>> 32) == id) {
+                int index = (int) byId[found];
+                lines[index] = LineSet.union(lines[index], other.linesAt(j));
+            } else {
+                // linesAt already copies the lines of a Word held inline
+                appendFile(id, other.lines == null ? other.linesAt(j) : new LineSet(other.lines[j]));
+            }
+        }
+
+        totalFrequency += other.totalFrequency;
+        return this;
+    }
+
+    /**
+     * Create a search key that compares against Word objects by their word string,
+     * so a word can be looked up in the tree without building a Word for it
+     * @param word the word string to search for
+     * @return a key that orders the same way as a Word holding that string
+     */
+    public static Comparable<Word> keyFor(String word) {
+        final String key = word.toLowerCase();
+        return other -> key.compareTo(other.word);
     }
 
     /**
@@ -60,9 +260,14 @@ public class Word implements Comparable<Word>, Serializable {
 
     /**
      * Get all files where this word appears
-     * @return HashMap of filename -> line numbers
+     * @return a new HashMap of filename -> line numbers; changing it does not
+     *         change this Word
      */
     public HashMap<String, ArrayList<Integer>> getFileLocations() {
+        HashMap<String, ArrayList<Integer>> fileLocations = new HashMap<String, ArrayList<Integer>>();
+        for (int i = 0; i < fileCount; i++) {
+            fileLocations.put(FileIds.name(fileIds[i]), linesAt(i).toList());
+        }
         return fileLocations;
     }
 
@@ -80,25 +285,41 @@ public class Word implements Comparable<Word>, Serializable {
      * @return frequency in that file, or 0 if not found
      */
     public int getFrequencyInFile(String filename) {
-        ArrayList<Integer> lineNumbers = fileLocations.get(filename);
-        return lineNumbers != null ? lineNumbers.size() : 0;
+        LineSet lineSet = linesIn(filename);
+        return lineSet != null ? lineSet.size() : 0;
     }
 
     /**
      * Get all filenames where this word appears
-     * @return ArrayList of filenames
+     * @return ArrayList of filenames, in the order the files were first read
      */
     public ArrayList<String> getFilenames() {
-        return new ArrayList<String>(fileLocations.keySet());
+        ArrayList<String> filenames = new ArrayList<String>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            filenames.add(FileIds.name(fileIds[i]));
+        }
+        return filenames;
     }
 
     /**
      * Get line numbers for a specific file
      * @param filename the file to get line numbers for
-     * @return ArrayList of line numbers, or null if file not found
+     * @return a new ArrayList of line numbers, or null if file not found
      */
     public ArrayList<Integer> getLineNumbers(String filename) {
-        return fileLocations.get(filename);
+        LineSet lineSet = linesIn(filename);
+        return lineSet != null ? lineSet.toList() : null;
+    }
+
+    /**
+     * Find the line numbers recorded for a file
+     * @param filename the file to find
+     * @return the line numbers, or null if the word has not been seen in the file
+     */
+    private LineSet linesIn(String filename) {
+        int id = FileIds.find(filename);
+        int index = id < 0 ? -1 : indexOf(id);
+        return index >= 0 ? linesAt(index) : null;
     }
 
     /**
@@ -133,15 +354,9 @@ public class Word implements Comparable<Word>, Serializable {
         StringBuilder sb = new StringBuilder();
         sb.append("Key = ===").append(word).append("===");
 
-        boolean first = true;
-        for (String filename : fileLocations.keySet()) {
-            if (first) {
-                sb.append(" found in file: ");
-                first = false;
-            } else {
-                sb.append(", ");
-            }
-            sb.append(filename);
+        for (int i = 0; i < fileCount; i++) {
+            sb.append(i == 0 ? " found in file: " : ", ");
+            sb.append(FileIds.name(fileIds[i]));
         }
 
         return sb.toString();
@@ -155,16 +370,7 @@ public class Word implements Comparable<Word>, Serializable {
         StringBuilder sb = new StringBuilder();
         sb.append("Key = ===").append(word).append("===");
 
-        for (String filename : fileLocations.keySet()) {
-            sb.append(" found in file: ").append(filename).append(" on lines: ");
-            ArrayList<Integer> lines = fileLocations.get(filename);
-
-            for (int i = 0; i < lines.size(); i++) {
-                if (i > 0) sb.append(",");
-                sb.append(lines.get(i));
-            }
-            sb.append(",");
-        }
+        appendFilesAndLines(sb);
 
         return sb.toString();
     }
@@ -177,22 +383,136 @@ public class Word implements Comparable<Word>, Serializable {
         StringBuilder sb = new StringBuilder();
         sb.append("===").append(word).append("=== number of entries: ").append(totalFrequency);
 
-        for (String filename : fileLocations.keySet()) {
-            ArrayList<Integer> lines = fileLocations.get(filename);
-            sb.append(" found in file: ").append(filename).append(" on lines: ");
+        appendFilesAndLines(sb);
 
-            for (int i = 0; i < lines.size(); i++) {
-                if (i > 0) sb.append(",");
-                sb.append(lines.get(i));
-            }
+        return sb.toString();
+    }
+
+    /**
+     * Append each file and its line numbers to a report
+     * Format: " found in file: filename on lines: 1,2," for each file
+     * @param sb the report being built
+     */
+    private void appendFilesAndLines(StringBuilder sb) {
+        for (int i = 0; i < fileCount; i++) {
+            sb.append(" found in file: ").append(FileIds.name(fileIds[i])).append(" on lines: ");
+            linesAt(i).appendTo(sb);
             sb.append(",");
         }
-
-        return sb.toString();
     }
 
     @Override
     public String toString() {
         return word + " (frequency: " + totalFrequency + ")";
     }
+
+    /**
+     * Save the word, then each file as its filename followed by its line
+     * numbers. The stream writes each filename String once and refers back to
+     * it for every later Word in the same file.
+     * @param out the stream to write the word to
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("word", word);
+        fields.put("fileLocations", null); // The files follow the fields instead
+        fields.put("totalFrequency", totalFrequency);
+        out.writeFields();
+        out.writeInt(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            out.writeObject(FileIds.name(fileIds[i]));
+            linesAt(i).writeTo(out);
+        }
+    }
+
+    /**
+     * Restore a word written by writeObject, or saved with a map of files to
+     * line lists by an earlier version, interning its filenames. The files
+     * keep the order they were saved in, which is the order the word was first
+     * found in them. A word in a single file on few enough lines is held
+     * inline again.
+     * @param in the stream to read the word from
+     * @throws IOException if the stream cannot be read or holds an invalid word
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        word = (String) fields.get("word", null);
+        Object savedLocations = fields.get("fileLocations", null);
+        totalFrequency = fields.get("totalFrequency", 0);
+        if (word == null) {
+            throw new InvalidObjectException("Missing word");
+        }
+        if (savedLocations != null) {
+            readLocations((HashMap<?, ?>) savedLocations);
+            return;
+        }
+
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Invalid word: " + word + " in " + count + " files");
+        }
+
+        // The file arrays grow as files arrive rather than trusting count
+        fileIds = NO_FILES;
+        lines = NO_LINES;
+        fileCount = 0;
+        for (int i = 0; i < count; i++) {
+            Object filename = in.readObject();
+            if (!(filename instanceof String)) {
+                throw new InvalidObjectException("Filename expected for word: " + word);
+            }
+            LineSet lineSet = LineSet.readFrom(in);
+            if (lineSet.size() == 0) {
+                throw new InvalidObjectException("No lines in " + filename + " for word: " + word);
+            }
+            appendFile(FileIds.intern((String) filename), lineSet);
+        }
+        int[] sorted = Arrays.copyOf(fileIds, fileCount);
+        Arrays.sort(sorted);
+        for (int i = 1; i < fileCount; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                throw new InvalidObjectException("Repeated file for word: " + word);
+            }
+        }
+
+        if (fileCount == 1 && lines[0].size() <= INLINE_LINES) {
+            int[] inline = new int[lines[0].size() + 1];
+            inline[0] = fileIds[0];
+            PrimitiveIterator.OfInt it = lines[0].iterator();
+            for (int i = 1; i < inline.length; i++) {
+                inline[i] = it.nextInt();
+            }
+            fileIds = inline;
+            lines = null;
+        }
+    }
+
+    /**
+     * Rebuild the files and lines of a word saved by an earlier version as a
+     * map of filename to line list, taking the files in the map's order, which
+     * is the order that version reported them in
+     * @param fileLocations the saved map
+     * @throws InvalidObjectException if the map holds anything but filenames
+     *             and non-empty lists of line numbers
+     */
+    private void readLocations(HashMap<?, ?> fileLocations) throws InvalidObjectException {
+        fileIds = NO_FILES;
+        lines = NO_LINES;
+        fileCount = 0;
+        for (Map.Entry<?, ?> entry : fileLocations.entrySet()) {
+            if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof ArrayList)
+                    || ((ArrayList<?>) entry.getValue()).isEmpty()) {
+                throw new InvalidObjectException("Invalid file locations for word: " + word);
+            }
+            int id = FileIds.intern((String) entry.getKey());
+            for (Object line : (ArrayList<?>) entry.getValue()) {
+                if (!(line instanceof Integer)) {
+                    throw new InvalidObjectException("Invalid line number for word: " + word);
+                }
+                record(id, (Integer) line);
+            }
+        }
+    }
 }
\ No newline at end of file
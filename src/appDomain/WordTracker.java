@@ -63,20 +63,23 @@ public class WordTracker {
 
     /**
      * Load existing word tree from repository.ser, or create new tree
+     * @throws IOException if the repository exists but cannot be read; it is
+     *             left as it is rather than replaced by a new tree
      */
-    private static void loadRepository() {
+    private static void loadRepository() throws IOException {
         File repoFile = new File(REPOSITORY_FILE);
 
         if (repoFile.exists()) {
             try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(repoFile))) {
                 wordTree = (BSTree<Word>) ois.readObject();
+                wordTree.setSelfBalancing(true); // Repositories saved before balancing load as plain trees
                 System.out.println("Loaded existing repository with " + wordTree.size() + " words.");
             } catch (Exception e) {
-                System.err.println("Warning: Could not load repository file. Creating new tree.");
-                wordTree = new BSTree<Word>();
+                throw new IOException("Could not load repository file " + REPOSITORY_FILE
+                        + ", leaving it unchanged: " + e, e);
             }
         } else {
-            wordTree = new BSTree<Word>();
+            wordTree = new BSTree<Word>(true);
             System.out.println("No existing repository found. Creating new tree.");
         }
     }
@@ -116,20 +119,13 @@ public class WordTracker {
 
                 for (String wordStr : words) {
                     if (wordStr.length() > 0) {
-                        Word word = new Word(wordStr);
-
-                        // Check if word already exists in tree
-                        Word existingWord = findWordInTree(word);
-
-                        if (existingWord != null) {
-                            // Word exists, add this occurrence
-                            existingWord.addOccurrence(filename, lineNumber);
-                        } else {
-                            // New word, add occurrence and insert into tree
-                            word.addOccurrence(filename, lineNumber);
-                            wordTree.add(word);
-                            wordsAdded++;
+                        // Find the word or insert a new one in a single tree descent
+                        Word word = wordTree.computeIfAbsent(Word.keyFor(wordStr), () -> new Word(wordStr));
+
+                        if (word.getTotalFrequency() == 0) {
+                            wordsAdded++; // New word, no occurrences recorded yet
                         }
+                        word.addOccurrence(filename, lineNumber);
                     }
                 }
             }
@@ -165,18 +161,6 @@ public class WordTracker {
         return wordList.toArray(new String[0]);
     }
 
-    /**
-     * Find a word in the tree (helper method)
-     * @param targetWord the word to find
-     * @return the Word object if found, null otherwise
-     */
-    private static Word findWordInTree(Word targetWord) {
-        if (wordTree.contains(targetWord)) {
-            return wordTree.search(targetWord).getData();
-        }
-        return null;
-    }
-
     /**
      * Generate output based on the specified mode
      * @param mode the output mode (-pf, -pl, -po)
@@ -0,0 +1,841 @@
+package implementations;
+
+import utilities.BSTreeADT;
+import utilities.Iterator;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * ArrayBSTree is a self-balancing (AVL) Binary Search Tree that keeps its nodes
+ * in a pool of parallel arrays instead of separate node objects. A node is an
+ * int index into the arrays, children are stored as indices, and removed slots
+ * are reused through a free list. This avoids the per-node object overhead and
+ * keeps a descent within a few compact arrays, which matters for very large
+ * vocabularies.
+ *
+ * Since the tree has no node objects, the nodes returned by getRoot, search,
+ * removeMin and removeMax are detached BSTreeNode copies holding the element;
+ * their children are not linked.
+ *
+ * @param <E> The type of elements stored in the tree
+ */
+public class ArrayBSTree<E extends Comparable<? super E>> implements BSTreeADT<E>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int NIL = -1;                 // Index used for a missing child
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Attributes - slot i of each array describes node i
+    private transient Object[] elements;   // Element stored in each node
+    private transient int[] left;          // Left child index, or the next free slot for a free node
+    private transient int[] right;         // Right child index
+    private transient byte[] heights;      // Height of the subtree rooted at each node
+    private transient int root;
+    private transient int size;
+    private transient int used;            // Number of slots ever handed out
+    private transient int freeHead;        // First slot of the free list
+    private transient int[] path;          // Reusable stack of the nodes visited by the last descent
+    private transient int modCount;        // Number of structural changes, checked by iterators to fail fast
+
+    // Constructors
+    public ArrayBSTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty tree with room for a number of elements before its arrays
+     * need to grow
+     * @param initialCapacity the number of elements to allocate room for
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public ArrayBSTree(int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        allocate(Math.max(initialCapacity, 1));
+    }
+
+    @Override
+    public BSTreeNode<E> getRoot() throws NullPointerException {
+        if (root == NIL) {
+            throw new NullPointerException("Tree is empty - no root node");
+        }
+        return new BSTreeNode<E>(element(root));
+    }
+
+    @Override
+    public int getHeight() {
+        return height(root);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == NIL;
+    }
+
+    @Override
+    public void clear() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public boolean contains(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        return find(entry) != NIL;
+    }
+
+    @Override
+    public BSTreeNode<E> search(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        int node = find(entry);
+        return node == NIL ? null : new BSTreeNode<E>(element(node));
+    }
+
+    /**
+     * Private helper method that finds the node holding an entry
+     * @param key the key to search for
+     * @return the index of the matching node, or NIL if not found
+     */
+    private int find(Comparable<? super E> key) {
+        int node = root;
+        while (node != NIL) {
+            int comparison = key.compareTo(element(node));
+
+            if (comparison == 0) {
+                return node; // Found the entry
+            }
+            node = comparison < 0 ? left[node] : right[node];
+        }
+        return NIL; // Entry not found
+    }
+
+    @Override
+    public boolean add(E newEntry) throws NullPointerException {
+        if (newEntry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+
+        int oldSize = size;
+        insert(newEntry, newEntry, null);
+        return size != oldSize;
+    }
+
+    @Override
+    public E getOrAdd(E newEntry) throws NullPointerException {
+        if (newEntry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        return insert(newEntry, newEntry, null);
+    }
+
+    @Override
+    public E computeIfAbsent(Comparable<? super E> key, Supplier<? extends E> factory)
+            throws NullPointerException {
+        if (key == null || factory == null) {
+            throw new NullPointerException("Key and factory cannot be null");
+        }
+        return insert(key, null, factory);
+    }
+
+    /**
+     * Private helper method that finds the element matching a key, or inserts a
+     * new one where the search ended, in a single descent of the tree
+     * @param key the key to search for
+     * @param newEntry the entry to insert if the key is not found, or null to
+     *                 create it with the factory instead
+     * @param factory creates the entry to insert when newEntry is null
+     * @return the element found in the tree, or the element inserted
+     */
+    private E insert(Comparable<? super E> key, E newEntry, Supplier<? extends E> factory) {
+        if (root == NIL) {
+            root = newNode(create(newEntry, factory));
+            size++;
+            modCount++;
+            return element(root);
+        }
+
+        // Walk down to the insertion point, remembering the path for rebalancing
+        int[] path = pathBuffer();
+        int depth = 0;
+        int node = root;
+        int inserted;
+        while (true) {
+            int comparison = key.compareTo(element(node));
+
+            if (comparison == 0) {
+                return element(node); // Already in the tree - not added
+            }
+            path[depth++] = node;
+
+            int next = comparison < 0 ? left[node] : right[node];
+            if (next == NIL) {
+                inserted = newNode(create(newEntry, factory)); // May grow the arrays
+                if (comparison < 0) {
+                    left[node] = inserted;
+                } else {
+                    right[node] = inserted;
+                }
+                break;
+            }
+            node = next;
+        }
+        size++;
+        modCount++;
+
+        retrace(path, depth);
+        return element(inserted);
+    }
+
+    /**
+     * Private helper method that produces the entry to insert
+     * @param newEntry the entry to insert, or null to use the factory
+     * @param factory creates the entry when newEntry is null
+     * @return the entry to insert
+     * @throws NullPointerException if the factory creates a null entry
+     */
+    private E create(E newEntry, Supplier<? extends E> factory) {
+        if (newEntry != null) {
+            return newEntry;
+        }
+        E created = factory.get();
+        if (created == null) {
+            throw new NullPointerException("Factory cannot create a null entry");
+        }
+        return created;
+    }
+
+    @Override
+    public BSTreeNode<E> removeMin() {
+        return removeExtreme(true);
+    }
+
+    @Override
+    public BSTreeNode<E> removeMax() {
+        return removeExtreme(false);
+    }
+
+    /**
+     * Private helper method that removes the smallest or largest element
+     * @param min true to remove the smallest element, false for the largest
+     * @return a detached node holding the removed element, or null if the tree is empty
+     */
+    private BSTreeNode<E> removeExtreme(boolean min) {
+        if (root == NIL) {
+            return null; // Tree is empty
+        }
+
+        // Walk the spine, remembering the path for rebalancing
+        int[] path = pathBuffer();
+        int depth = 0;
+        int node = root;
+        int next = min ? left[node] : right[node];
+        while (next != NIL) {
+            path[depth++] = node;
+            node = next;
+            next = min ? left[node] : right[node];
+        }
+
+        // Splice the node out by promoting its only subtree
+        int child = min ? right[node] : left[node];
+        if (depth == 0) {
+            root = child;
+        } else if (min) {
+            left[path[depth - 1]] = child;
+        } else {
+            right[path[depth - 1]] = child;
+        }
+        size--;
+        modCount++;
+
+        BSTreeNode<E> removed = new BSTreeNode<E>(element(node));
+        freeNode(node);
+        retrace(path, depth);
+        return removed;
+    }
+
+    /**
+     * Removes an element, rebalancing the path above it. A node with two
+     * children takes over the element of its in-order successor, whose slot is
+     * then spliced out of the right subtree instead.
+     * @param entry the element to remove
+     * @return a detached node holding the removed element, or null if the
+     *         element is not in the tree
+     * @throws NullPointerException if the element being passed in is null
+     */
+    @Override
+    public BSTreeNode<E> remove(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+
+        // Walk down to the node, remembering the path for rebalancing
+        int[] path = pathBuffer();
+        int depth = 0;
+        int node = root;
+        while (node != NIL) {
+            int comparison = entry.compareTo(element(node));
+
+            if (comparison == 0) {
+                break;
+            }
+            path[depth++] = node;
+            node = comparison < 0 ? left[node] : right[node];
+        }
+        if (node == NIL) {
+            return null; // Entry not found
+        }
+        BSTreeNode<E> removed = new BSTreeNode<E>(element(node));
+
+        int target = node;
+        if (left[node] != NIL && right[node] != NIL) {
+            // Move the successor's element up and splice out the successor's slot
+            path[depth++] = node;
+            target = right[node];
+            while (left[target] != NIL) {
+                path[depth++] = target;
+                target = left[target];
+            }
+            elements[node] = elements[target];
+        }
+
+        int child = left[target] != NIL ? left[target] : right[target];
+        if (depth == 0) {
+            root = child;
+        } else if (left[path[depth - 1]] == target) {
+            left[path[depth - 1]] = child;
+        } else {
+            right[path[depth - 1]] = child;
+        }
+        size--;
+        modCount++;
+
+        freeNode(target);
+        retrace(path, depth);
+        return removed;
+    }
+
+    /**
+     * Removes a sorted batch of elements one at a time
+     * @param entries iterator over the elements to remove in ascending order
+     * @return the number of elements removed from the tree
+     * @throws NullPointerException if the iterator or any element is null
+     * @throws IllegalArgumentException if the elements are not in ascending order
+     */
+    @Override
+    public int removeAll(Iterator<E> entries) throws NullPointerException, IllegalArgumentException {
+        int removed = 0;
+        for (E entry : BSTree.sortedBatch(entries)) {
+            if (remove(entry) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public Iterator<E> inorderIterator() {
+        return new InorderIterator();
+    }
+
+    @Override
+    public Iterator<E> preorderIterator() {
+        return new PreorderIterator();
+    }
+
+    @Override
+    public Iterator<E> postorderIterator() {
+        return new PostorderIterator();
+    }
+
+    @Override
+    public Iterator<E> levelorderIterator() {
+        return new LevelorderIterator(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Iterator<E> levelorderIterator(int maxDepth) throws IllegalArgumentException {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Depth cannot be negative: " + maxDepth);
+        }
+        return new LevelorderIterator(maxDepth);
+    }
+
+    // Helper methods for the node pool
+
+    /**
+     * Replaces the node pool with empty arrays of a given capacity
+     * @param capacity the number of slots to allocate
+     */
+    private void allocate(int capacity) {
+        elements = new Object[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        heights = new byte[capacity];
+        root = NIL;
+        size = 0;
+        used = 0;
+        freeHead = NIL;
+        modCount++;
+    }
+
+    /**
+     * Takes a slot from the free list, or a fresh one from the end of the arrays,
+     * and initializes it as a leaf
+     * @param element the element to store in the node
+     * @return the index of the new node
+     */
+    private int newNode(E element) {
+        int node;
+        if (freeHead != NIL) {
+            node = freeHead;
+            freeHead = left[node];
+        } else {
+            if (used == elements.length) {
+                grow();
+            }
+            node = used++;
+        }
+        elements[node] = element;
+        left[node] = NIL;
+        right[node] = NIL;
+        heights[node] = 1;
+        return node;
+    }
+
+    /**
+     * Grows the node pool arrays by half their length
+     */
+    private void grow() {
+        int capacity = elements.length + (elements.length >> 1) + 1;
+        elements = Arrays.copyOf(elements, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+    }
+
+    /**
+     * Returns a slot to the free list
+     * @param node the index of the node to free
+     */
+    private void freeNode(int node) {
+        elements[node] = null; // Do not keep removed elements reachable
+        right[node] = NIL;
+        heights[node] = 0;
+        left[node] = freeHead;
+        freeHead = node;
+    }
+
+    /**
+     * Gets the element stored in a node
+     * @param node the index of the node
+     * @return the element stored in the node
+     */
+    @SuppressWarnings("unchecked")
+    private E element(int node) {
+        return (E) elements[node];
+    }
+
+    // Helper methods for self-balancing
+
+    /**
+     * Gets the path buffer, making sure it can hold a descent from the root to
+     * one past the deepest node
+     * @return the reusable path buffer
+     */
+    private int[] pathBuffer() {
+        int needed = height(root) + 1;
+        if (path == null || path.length < needed) {
+            path = new int[Math.max(needed, 32)];
+        }
+        return path;
+    }
+
+    /**
+     * Walks back up a descent path after an insertion or removal, rebalancing
+     * each ancestor and relinking any subtree that was rotated. Stops as soon as
+     * a subtree keeps its previous height, since nothing above it can change.
+     * @param path the nodes visited on the way down, root first
+     * @param depth the number of nodes in the path
+     */
+    private void retrace(int[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            int node = path[i];
+            int oldHeight = heights[node];
+            int subtree = rebalance(node);
+
+            if (subtree != node) {
+                if (i == 0) {
+                    root = subtree;
+                } else if (left[path[i - 1]] == node) {
+                    left[path[i - 1]] = subtree;
+                } else {
+                    right[path[i - 1]] = subtree;
+                }
+            }
+            if (heights[subtree] == oldHeight) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the recorded height of a subtree
+     * @param node the root of the subtree, may be NIL
+     * @return the height of the subtree, 0 for an empty subtree
+     */
+    private int height(int node) {
+        return node == NIL ? 0 : heights[node];
+    }
+
+    /**
+     * Recomputes the recorded height of a node from its children
+     * @param node the node to update
+     */
+    private void updateHeight(int node) {
+        heights[node] = (byte) (1 + Math.max(height(left[node]), height(right[node])));
+    }
+
+    /**
+     * Restores the AVL property at a node whose children are already balanced
+     * @param node the root of the subtree to rebalance
+     * @return the new root of the subtree
+     */
+    private int rebalance(int node) {
+        updateHeight(node);
+        int balance = height(left[node]) - height(right[node]);
+
+        if (balance > 1) {
+            // Left heavy - a left-right case needs a rotation of the left child first
+            if (height(left[left[node]]) < height(right[left[node]])) {
+                left[node] = rotateLeft(left[node]);
+            }
+            return rotateRight(node);
+        } else if (balance < -1) {
+            // Right heavy - a right-left case needs a rotation of the right child first
+            if (height(right[right[node]]) < height(left[right[node]])) {
+                right[node] = rotateRight(right[node]);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Rotates a subtree to the right, lifting its left child
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    /**
+     * Rotates a subtree to the left, lifting its right child
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    // Serialization
+
+    /**
+     * Saves the tree as a size header followed by its elements in order, so
+     * unused slots and the free list are not written
+     * @param out the stream to write the tree to
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        Iterator<E> it = inorderIterator();
+        while (it.hasNext()) {
+            out.writeObject(it.next());
+        }
+    }
+
+    /**
+     * Restores a tree written by writeObject into compact arrays, rebuilding it
+     * perfectly balanced in O(n)
+     * @param in the stream to read the tree from
+     * @throws IOException if the stream cannot be read or holds an invalid tree
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Negative tree size: " + count);
+        }
+
+        allocate(Math.max(Math.min(count, 1024), 1)); // Grow as elements arrive rather than trusting count
+        for (int i = 0; i < count; i++) {
+            E element = (E) in.readObject();
+            if (element == null || (i > 0 && element.compareTo(element(i - 1)) <= 0)) {
+                throw new InvalidObjectException("Tree elements are not in strictly ascending order");
+            }
+            if (i == elements.length) {
+                grow();
+            }
+            elements[i] = element;
+        }
+        used = count;
+        size = count;
+        root = buildBalanced(0, count);
+    }
+
+    /**
+     * Private recursive helper method that links the slots of a sorted range into
+     * a balanced subtree. The recursion depth is O(log n).
+     * @param from the first slot of the range
+     * @param to one past the last slot of the range
+     * @return the root of the new subtree, or NIL if the range is empty
+     */
+    private int buildBalanced(int from, int to) {
+        if (from == to) {
+            return NIL;
+        }
+
+        int middle = (from + to - 1) >>> 1;
+        left[middle] = buildBalanced(from, middle);
+        right[middle] = buildBalanced(middle + 1, to);
+        updateHeight(middle);
+        return middle;
+    }
+
+    /**
+     * Checks that the tree has not been structurally changed since an iteration
+     * started
+     * @param expectedModCount the modification count when the iteration started
+     * @throws ConcurrentModificationException if the tree has been changed
+     */
+    private void checkForComodification(int expectedModCount) throws ConcurrentModificationException {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("Tree was modified during iteration");
+        }
+    }
+
+    // Inner Iterator Implementations
+    // Each iterator walks the tree lazily with an int stack of node indices, so
+    // the extra memory is bounded by the height of the tree when the iteration
+    // starts. The iterators are fail-fast: once the tree is added to or removed
+    // from, next throws a ConcurrentModificationException instead of walking
+    // slots that may have been rebalanced, freed or reused.
+
+    /**
+     * Iterator over the elements in natural (left, root, right) order
+     */
+    private class InorderIterator implements Iterator<E> {
+        private int[] stack = new int[height(root)];
+        private int top = 0;
+        private final int expectedModCount = modCount;
+
+        public InorderIterator() {
+            pushLeftSpine(root);
+        }
+
+        /**
+         * Pushes a node and all of its left descendants onto the stack
+         * @param node the top of the spine to push
+         */
+        private void pushLeftSpine(int node) {
+            while (node != NIL) {
+                stack[top++] = node;
+                node = left[node];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            int node = stack[--top];               // Root
+            pushLeftSpine(right[node]);            // Right, after its left spine
+            return element(node);
+        }
+    }
+
+    /**
+     * Iterator over the elements in root, left, right order
+     */
+    private class PreorderIterator implements Iterator<E> {
+        private int[] stack = new int[height(root) + 1];
+        private int top = 0;
+        private final int expectedModCount = modCount;
+
+        public PreorderIterator() {
+            if (root != NIL) {
+                stack[top++] = root;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            int node = stack[--top];               // Root
+            if (right[node] != NIL) {
+                stack[top++] = right[node];        // Right, visited after left
+            }
+            if (left[node] != NIL) {
+                stack[top++] = left[node];         // Left
+            }
+            return element(node);
+        }
+    }
+
+    /**
+     * Iterator over the elements in left, right, root order
+     */
+    private class PostorderIterator implements Iterator<E> {
+        private int[] stack = new int[height(root)];
+        private int top = 0;
+        private final int expectedModCount = modCount;
+
+        public PostorderIterator() {
+            pushToFirstLeaf(root);
+        }
+
+        /**
+         * Pushes the path from a node down to the first leaf visited in post-order,
+         * preferring left children over right ones
+         * @param node the top of the path to push
+         */
+        private void pushToFirstLeaf(int node) {
+            while (node != NIL) {
+                stack[top++] = node;
+                node = left[node] != NIL ? left[node] : right[node];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            int node = stack[--top];
+            // Coming up from a left child means the parent's right subtree is next
+            if (top > 0 && left[stack[top - 1]] == node) {
+                pushToFirstLeaf(right[stack[top - 1]]);
+            }
+            return element(node);
+        }
+    }
+
+    /**
+     * Iterator over the elements level by level, down to a maximum depth. Node
+     * indices are queued in a growable ring buffer, and the children of the last
+     * level are never queued.
+     */
+    private class LevelorderIterator implements Iterator<E> {
+        private int[] queue = new int[16];     // Ring buffer, its length is always a power of two
+        private int head = 0;
+        private int count = 0;
+        private final int maxDepth;
+        private int depth = 1;                 // Level of the node at the front of the queue
+        private int levelRemaining;            // Nodes of that level still in the queue
+        private final int expectedModCount = modCount;
+
+        public LevelorderIterator(int maxDepth) {
+            this.maxDepth = maxDepth;
+            if (root != NIL && maxDepth > 0) {
+                enqueue(root);
+                levelRemaining = 1;
+            }
+        }
+
+        /**
+         * Adds a node to the back of the queue, doubling the buffer when it is full
+         * @param node the index of the node to add
+         */
+        private void enqueue(int node) {
+            if (count == queue.length) {
+                int[] grown = new int[queue.length * 2];
+                for (int i = 0; i < count; i++) {
+                    grown[i] = queue[(head + i) & (queue.length - 1)];
+                }
+                queue = grown;
+                head = 0;
+            }
+            queue[(head + count++) & (queue.length - 1)] = node;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return count > 0;
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            int node = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            count--;
+            if (depth < maxDepth) {
+                if (left[node] != NIL) {
+                    enqueue(left[node]);
+                }
+                if (right[node] != NIL) {
+                    enqueue(right[node]);
+                }
+            }
+            if (--levelRemaining == 0) {
+                depth++;                           // The queue now holds exactly the next level
+                levelRemaining = count;
+            }
+            return element(node);
+        }
+    }
+}
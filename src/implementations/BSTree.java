@@ -2,56 +2,196 @@ package implementations;
 
 import utilities.BSTreeADT;
 import utilities.Iterator;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 
 public class BSTree<E extends Comparable<? super E>> implements BSTreeADT<E>, Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * The serialized fields are those of the original default form, so trees
+     * saved as nested nodes can still be read. writeObject saves a null root
+     * and follows the fields with the elements in order.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("root", BSTreeNode.class),
+        new ObjectStreamField("size", int.class),
+        new ObjectStreamField("selfBalancing", boolean.class)
+    };
+
     // Attributes
-    private BSTreeNode<E> root;
-    private int size;
+    private transient BSTreeNode<E> root;  // Saved as an ordered list of elements, see writeObject
+    private transient int size;
+    private boolean selfBalancing;     // true if the tree rebalances itself (AVL) on add/remove
+    private transient BSTreeNode<E>[] path; // Reusable stack of the nodes visited by the last descent
+    private transient int modCount;    // Number of structural changes, checked by iterators to fail fast
 
     // Constructors
     public BSTree() {
         this.root = null;
         this.size = 0;
+        this.selfBalancing = false;
     }
 
     public BSTree(E element) {
         this.root = new BSTreeNode<E>(element);
         this.size = 1;
+        this.selfBalancing = false;
     }
 
-    @Override
-    public BSTreeNode<E> getRoot() throws NullPointerException {
-        if (root == null) {
-            throw new NullPointerException("Tree is empty - no root node");
+    /**
+     * Creates an empty tree. A self-balancing tree performs AVL rotations on add
+     * and remove so its height stays O(log n) regardless of insertion order; a
+     * plain tree keeps the shape given by the insertion order.
+     * @param selfBalancing true to keep the tree height balanced
+     */
+    public BSTree(boolean selfBalancing) {
+        this.root = null;
+        this.size = 0;
+        this.selfBalancing = selfBalancing;
+    }
+
+    /**
+     * Builds a perfectly balanced tree from elements that are already in their
+     * natural order, without any comparisons. Runs in O(n) time.
+     * @param <E> the type of elements in the tree
+     * @param elements iterator over the elements in ascending order with no duplicates
+     * @param size the number of elements to take from the iterator
+     * @return a new plain tree holding the elements
+     * @throws NullPointerException if the iterator or any element is null
+     * @throws IllegalArgumentException if size is negative
+     * @throws NoSuchElementException if the iterator has fewer than size elements
+     */
+    public static <E extends Comparable<? super E>> BSTree<E> fromSorted(Iterator<E> elements, int size)
+            throws NullPointerException, IllegalArgumentException, NoSuchElementException {
+        return fromSorted(elements, size, false);
+    }
+
+    /**
+     * Builds a perfectly balanced tree from elements that are already in their
+     * natural order, without any comparisons. Runs in O(n) time.
+     * @param <E> the type of elements in the tree
+     * @param elements iterator over the elements in ascending order with no duplicates
+     * @param size the number of elements to take from the iterator
+     * @param selfBalancing true if the new tree should keep itself balanced
+     * @return a new tree holding the elements
+     * @throws NullPointerException if the iterator or any element is null
+     * @throws IllegalArgumentException if size is negative
+     * @throws NoSuchElementException if the iterator has fewer than size elements
+     */
+    public static <E extends Comparable<? super E>> BSTree<E> fromSorted(Iterator<E> elements, int size,
+            boolean selfBalancing) throws NullPointerException, IllegalArgumentException, NoSuchElementException {
+        if (elements == null) {
+            throw new NullPointerException("Iterator cannot be null");
         }
-        return root;
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be negative: " + size);
+        }
+
+        BSTree<E> tree = new BSTree<E>(selfBalancing);
+        tree.root = buildBalanced(elements, size);
+        tree.size = size;
+        return tree;
     }
 
-    @Override
-    public int getHeight() {
-        return getHeight(root);
+    /**
+     * Private recursive helper method that builds a balanced subtree from the next
+     * elements of a sorted iteration. The recursion depth is O(log n).
+     * @param elements iterator over the elements in ascending order
+     * @param count the number of elements to place in the subtree
+     * @return the root of the new subtree, or null if count is zero
+     */
+    private static <E> BSTreeNode<E> buildBalanced(Iterator<E> elements, int count) {
+        if (count == 0) {
+            return null;
+        }
+
+        int leftCount = (count - 1) / 2;
+        BSTreeNode<E> left = buildBalanced(elements, leftCount);           // Left
+        E data = elements.next();                                         // Root
+        if (data == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        BSTreeNode<E> right = buildBalanced(elements, count - leftCount - 1); // Right
+
+        return new BSTreeNode<E>(data, left, right); // Records the height and size
     }
 
     /**
-     * Private recursive helper method to calculate height
-     * @param node the node to calculate height from
-     * @return height of the subtree rooted at node
+     * Private helper method that iterates over an array of elements in order
+     * @param elements the elements, followed by any unused slots
+     * @return an iterator starting at the first slot of the array
      */
-    private int getHeight(BSTreeNode<E> node) {
-        if (node == null) {
-            return 0;
+    private static <E> Iterator<E> arrayIterator(final Object[] elements) {
+        return new Iterator<E>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < elements.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() throws NoSuchElementException {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements in iterator");
+                }
+                return (E) elements[index++];
+            }
+        };
+    }
+
+    /**
+     * Checks whether this tree rebalances itself on add and remove
+     * @return true if the tree is self-balancing, false otherwise
+     */
+    public boolean isSelfBalancing() {
+        return selfBalancing;
+    }
+
+    /**
+     * Switches AVL self-balancing on or off. Switching it on rebuilds the tree
+     * perfectly balanced in O(n), so a tree built or loaded as a plain tree
+     * stays balanced from then on; switching it off keeps the current shape.
+     * @param selfBalancing true to keep the tree height balanced
+     */
+    public void setSelfBalancing(boolean selfBalancing) {
+        if (selfBalancing && !this.selfBalancing && size > 0) {
+            root = buildBalanced(inorderIterator(), size);
+            modCount++;
         }
+        this.selfBalancing = selfBalancing;
+    }
 
-        int leftHeight = getHeight(node.getLeft());
-        int rightHeight = getHeight(node.getRight());
+    @Override
+    public BSTreeNode<E> getRoot() throws NullPointerException {
+        if (root == null) {
+            throw new NullPointerException("Tree is empty - no root node");
+        }
+        return root;
+    }
 
-        return 1 + Math.max(leftHeight, rightHeight);
+    @Override
+    public int getHeight() {
+        return height(root); // Heights are maintained on every add and remove
     }
 
     @Override
@@ -68,6 +208,7 @@ public class BSTree<E extends Comparable<? super E>> implements BSTreeADT<E>, Se
     public void clear() {
         root = null;
         size = 0;
+        modCount++;
     }
 
     @Override
@@ -83,29 +224,17 @@ public class BSTree<E extends Comparable<? super E>> implements BSTreeADT<E>, Se
         if (entry == null) {
             throw new NullPointerException("Entry cannot be null");
         }
-        return search(root, entry);
-    }
 
-    /**
-     * Private recursive helper method to search for an entry
-     * @param node the current node being examined
-     * @param entry the entry to search for
-     * @return the node containing the entry, or null if not found
-     */
-    private BSTreeNode<E> search(BSTreeNode<E> node, E entry) {
-        if (node == null) {
-            return null; // Entry not found
-        }
+        BSTreeNode<E> node = root;
+        while (node != null) {
+            int comparison = entry.compareTo(node.getData());
 
-        int comparison = entry.compareTo(node.getData());
-
-        if (comparison == 0) {
-            return node; // Found the entry
-        } else if (comparison < 0) {
-            return search(node.getLeft(), entry); // Search left subtree
-        } else {
-            return search(node.getRight(), entry); // Search right subtree
+            if (comparison == 0) {
+                return node; // Found the entry
+            }
+            node = comparison < 0 ? node.getLeft() : node.getRight();
         }
+        return null; // Entry not found
     }
 
     @Override
@@ -114,45 +243,97 @@ public class BSTree<E extends Comparable<? super E>> implements BSTreeADT<E>, Se
             throw new NullPointerException("Entry cannot be null");
         }
 
-        if (root == null) {
-            root = new BSTreeNode<E>(newEntry);
-            size++;
-            return true;
+        int oldSize = size;
+        insert(newEntry, newEntry, null);
+        return size != oldSize;
+    }
+
+    @Override
+    public E getOrAdd(E newEntry) throws NullPointerException {
+        if (newEntry == null) {
+            throw new NullPointerException("Entry cannot be null");
         }
+        return insert(newEntry, newEntry, null);
+    }
 
-        return add(root, newEntry);
+    @Override
+    public E computeIfAbsent(Comparable<? super E> key, Supplier<? extends E> factory)
+            throws NullPointerException {
+        if (key == null || factory == null) {
+            throw new NullPointerException("Key and factory cannot be null");
+        }
+        return insert(key, null, factory);
     }
 
     /**
-     * Private recursive helper method to add an entry to the tree
-     * @param node the current node being examined
-     * @param newEntry the entry to add
-     * @return true if the entry was added, false if it already exists
+     * Private helper method that finds the element matching a key, or inserts a
+     * new one where the search ended, in a single descent of the tree
+     * @param key the key to search for
+     * @param newEntry the entry to insert if the key is not found, or null to
+     *                 create it with the factory instead
+     * @param factory creates the entry to insert when newEntry is null
+     * @return the element found in the tree, or the element inserted
      */
-    private boolean add(BSTreeNode<E> node, E newEntry) {
-        int comparison = newEntry.compareTo(node.getData());
+    private E insert(Comparable<? super E> key, E newEntry, Supplier<? extends E> factory) {
+        if (root == null) {
+            root = new BSTreeNode<E>(create(newEntry, factory));
+            size++;
+            modCount++;
+            return root.getData();
+        }
 
-        if (comparison == 0) {
-            return false; // Duplicate - not added
-        } else if (comparison < 0) {
-            // Add to left subtree
-            if (node.getLeft() == null) {
-                node.setLeft(new BSTreeNode<E>(newEntry));
-                size++;
-                return true;
-            } else {
-                return add(node.getLeft(), newEntry);
+        // Walk down to the insertion point, remembering the path to update heights
+        BSTreeNode<E>[] path = pathBuffer();
+        int depth = 0;
+        BSTreeNode<E> node = root;
+        BSTreeNode<E> inserted;
+        while (true) {
+            int comparison = key.compareTo(node.getData());
+
+            if (comparison == 0) {
+                return node.getData(); // Already in the tree - not added
             }
-        } else {
-            // Add to right subtree
-            if (node.getRight() == null) {
-                node.setRight(new BSTreeNode<E>(newEntry));
-                size++;
-                return true;
-            } else {
-                return add(node.getRight(), newEntry);
+            path[depth++] = node;
+
+            BSTreeNode<E> next = comparison < 0 ? node.getLeft() : node.getRight();
+            if (next == null) {
+                inserted = new BSTreeNode<E>(create(newEntry, factory));
+                if (comparison < 0) {
+                    node.setLeft(inserted);
+                } else {
+                    node.setRight(inserted);
+                }
+                break;
             }
+            node = next;
         }
+        size++;
+        modCount++;
+
+        if (selfBalancing) {
+            retrace(path, depth);
+        } else {
+            retraceInsertion(path, depth);
+        }
+        return inserted.getData();
+    }
+
+    /**
+     * Private helper method that produces the entry to insert
+     * @param newEntry the entry to insert, or null to use the factory
+     * @param factory creates the entry when newEntry is null
+     * @return the entry to insert
+     * @throws NullPointerException if the factory creates a null entry
+     */
+    private E create(E newEntry, Supplier<? extends E> factory) {
+        if (newEntry != null) {
+            return newEntry;
+        }
+        E created = factory.get();
+        if (created == null) {
+            throw new NullPointerException("Factory cannot create a null entry");
+        }
+        return created;
     }
 
     @Override
@@ -161,145 +342,1224 @@ public class BSTree<E extends Comparable<? super E>> implements BSTreeADT<E>, Se
             return null; // Tree is empty
         }
 
-        BSTreeNode<E> minNode = findMin(root);
-        root = removeMin(root);
-        if (minNode != null) {
-            size--;
+        // Walk the left spine, remembering the path to update heights
+        BSTreeNode<E>[] path = pathBuffer();
+        int depth = 0;
+        BSTreeNode<E> minNode = root;
+        BSTreeNode<E> parent = null;
+        while (minNode.getLeft() != null) {
+            path[depth++] = minNode;
+            parent = minNode;
+            minNode = minNode.getLeft();
         }
+
+        // Splice the minimum out by promoting its right subtree
+        if (parent == null) {
+            root = minNode.getRight();
+        } else {
+            parent.setLeft(minNode.getRight());
+        }
+        size--;
+        modCount++;
+
+        retrace(path, depth);
         return minNode;
     }
 
+    @Override
+    public BSTreeNode<E> removeMax() {
+        if (root == null) {
+            return null; // Tree is empty
+        }
+
+        // Walk the right spine, remembering the path to update heights
+        BSTreeNode<E>[] path = pathBuffer();
+        int depth = 0;
+        BSTreeNode<E> maxNode = root;
+        BSTreeNode<E> parent = null;
+        while (maxNode.getRight() != null) {
+            path[depth++] = maxNode;
+            parent = maxNode;
+            maxNode = maxNode.getRight();
+        }
+
+        // Splice the maximum out by promoting its left subtree
+        if (parent == null) {
+            root = maxNode.getLeft();
+        } else {
+            parent.setRight(maxNode.getLeft());
+        }
+        size--;
+        modCount++;
+
+        retrace(path, depth);
+        return maxNode;
+    }
+
     /**
-     * Private helper method to find the minimum node in a subtree
-     * @param node the root of the subtree
-     * @return the node with the minimum value
+     * Removes the n smallest elements, as when draining a sorted work queue. The
+     * batch is collected and cut off in a single descent that splits the tree by
+     * rank, so a batch of k elements costs O(k + log n) in a self-balancing tree
+     * rather than k separate removals. The elements that remain are rejoined
+     * without rebuilding, and a self-balancing tree stays balanced.
+     * @param n the number of elements to remove
+     * @return the removed elements in ascending order, all of the elements if
+     *         the tree holds fewer than n
+     * @throws IllegalArgumentException if n is negative
      */
-    private BSTreeNode<E> findMin(BSTreeNode<E> node) {
-        while (node.getLeft() != null) {
-            node = node.getLeft();
+    public ArrayList<E> pollFirst(int n) throws IllegalArgumentException {
+        if (n < 0) {
+            throw new IllegalArgumentException("Count cannot be negative: " + n);
         }
-        return node;
+        int remaining = Math.min(n, size);
+        ArrayList<E> polled = new ArrayList<E>(remaining);
+        if (remaining == 0) {
+            return polled;
+        }
+
+        // Descend by rank: a node and its left subtree are polled when they fit in
+        // the batch, otherwise the node is kept with its right subtree
+        BSTreeNode<E>[] path = pathBuffer();
+        int depth = 0;
+        BSTreeNode<E> node = root;
+        while (remaining > 0) {
+            int leftSize = size(node.getLeft());
+            if (remaining <= leftSize) {
+                path[depth++] = node;
+                node = node.getLeft();
+            } else {
+                collect(node.getLeft(), polled, false);
+                polled.add(node.getElement());
+                remaining -= leftSize + 1;
+                node = node.getRight();
+            }
+        }
+
+        // Rejoin the kept nodes from the deepest up, each one above what was kept below it
+        BSTreeNode<E> rest = node;
+        for (int i = depth - 1; i >= 0; i--) {
+            BSTreeNode<E> kept = path[i];
+            path[i] = null;
+            rest = join(rest, kept, kept.getRight());
+        }
+        root = rest;
+        size -= polled.size();
+        modCount++;
+        return polled;
+    }
+
+    /**
+     * Removes the n largest elements in the same way as pollFirst.
+     * @param n the number of elements to remove
+     * @return the removed elements in descending order, all of the elements if
+     *         the tree holds fewer than n
+     * @throws IllegalArgumentException if n is negative
+     */
+    public ArrayList<E> pollLast(int n) throws IllegalArgumentException {
+        if (n < 0) {
+            throw new IllegalArgumentException("Count cannot be negative: " + n);
+        }
+        int remaining = Math.min(n, size);
+        ArrayList<E> polled = new ArrayList<E>(remaining);
+        if (remaining == 0) {
+            return polled;
+        }
+
+        BSTreeNode<E>[] path = pathBuffer();
+        int depth = 0;
+        BSTreeNode<E> node = root;
+        while (remaining > 0) {
+            int rightSize = size(node.getRight());
+            if (remaining <= rightSize) {
+                path[depth++] = node;
+                node = node.getRight();
+            } else {
+                collect(node.getRight(), polled, true);
+                polled.add(node.getElement());
+                remaining -= rightSize + 1;
+                node = node.getLeft();
+            }
+        }
+
+        BSTreeNode<E> rest = node;
+        for (int i = depth - 1; i >= 0; i--) {
+            BSTreeNode<E> kept = path[i];
+            path[i] = null;
+            rest = join(kept.getLeft(), kept, rest);
+        }
+        root = rest;
+        size -= polled.size();
+        modCount++;
+        return polled;
     }
 
     /**
-     * Private recursive helper method to remove the minimum node
-     * @param node the current node
-     * @return the new root of the subtree after removal
+     * Removes an element by splicing it out of the tree. A node with two children
+     * is replaced by its in-order successor, which is first spliced out of the
+     * right subtree. Heights and sizes are updated along the path, and a
+     * self-balancing tree is rebalanced.
+     * @param entry the element to remove
+     * @return the removed node, detached from the tree, or null if the element
+     *         is not in the tree
+     * @throws NullPointerException if the element being passed in is null
      */
-    private BSTreeNode<E> removeMin(BSTreeNode<E> node) {
+    @Override
+    public BSTreeNode<E> remove(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+
+        // Walk down to the node, remembering the path to update heights
+        BSTreeNode<E>[] path = pathBuffer();
+        int depth = 0;
+        BSTreeNode<E> node = root;
+        BSTreeNode<E> parent = null;
+        while (node != null) {
+            int comparison = entry.compareTo(node.getData());
+
+            if (comparison == 0) {
+                break;
+            }
+            path[depth++] = node;
+            parent = node;
+            node = comparison < 0 ? node.getLeft() : node.getRight();
+        }
+        if (node == null) {
+            Arrays.fill(path, 0, depth, null); // Do not keep the path reachable
+            return null; // Entry not found
+        }
+
+        BSTreeNode<E> replacement;
         if (node.getLeft() == null) {
-            return node.getRight(); // Return right subtree
+            replacement = node.getRight();
+        } else if (node.getRight() == null) {
+            replacement = node.getLeft();
+        } else {
+            // The successor takes over the node's place, so it also takes its slot in the path
+            int slot = depth++;
+            BSTreeNode<E> successorParent = node;
+            BSTreeNode<E> successor = node.getRight();
+            while (successor.getLeft() != null) {
+                path[depth++] = successor;
+                successorParent = successor;
+                successor = successor.getLeft();
+            }
+            if (successorParent != node) {
+                successorParent.setLeft(successor.getRight());
+                successor.setRight(node.getRight());
+            }
+            successor.setLeft(node.getLeft());
+            successor.setHeight(node.getHeight()); // Retracing may stop before it reaches the slot
+            path[slot] = successor;
+            replacement = successor;
+        }
+
+        if (parent == null) {
+            root = replacement;
+        } else if (parent.getLeft() == node) {
+            parent.setLeft(replacement);
+        } else {
+            parent.setRight(replacement);
         }
-        node.setLeft(removeMin(node.getLeft()));
+        node.setLeft(null);
+        node.setRight(null);
+        size--;
+        modCount++;
+
+        retrace(path, depth);
         return node;
     }
 
+    /**
+     * Removes a sorted batch of elements. A small batch is removed one element at
+     * a time. A batch large enough that this would cost more than a pass over
+     * the tree is instead merged against the in-order elements in a single pass,
+     * and the survivors are rebuilt into a perfectly balanced tree in O(n).
+     * @param entries iterator over the elements to remove in ascending order
+     * @return the number of elements removed from the tree
+     * @throws NullPointerException if the iterator or any element is null
+     * @throws IllegalArgumentException if the elements are not in ascending order
+     */
     @Override
-    public BSTreeNode<E> removeMax() {
-        if (root == null) {
-            return null; // Tree is empty
+    public int removeAll(Iterator<E> entries) throws NullPointerException, IllegalArgumentException {
+        ArrayList<E> batch = sortedBatch(entries);
+        int removed = 0;
+
+        if ((long) batch.size() * height(root) < size) {
+            for (E entry : batch) {
+                if (remove(entry) != null) {
+                    removed++;
+                }
+            }
+            return removed;
         }
 
-        BSTreeNode<E> maxNode = findMax(root);
-        root = removeMax(root);
-        if (maxNode != null) {
-            size--;
+        // Merge the batch against the elements in order, keeping those not in the batch
+        Object[] kept = new Object[size];
+        int count = 0;
+        int next = 0;
+        Iterator<E> it = inorderIterator();
+        while (it.hasNext()) {
+            E element = it.next();
+            while (next < batch.size() && batch.get(next).compareTo(element) < 0) {
+                next++;
+            }
+            if (next < batch.size() && batch.get(next).compareTo(element) == 0) {
+                removed++;
+            } else {
+                kept[count++] = element;
+            }
         }
-        return maxNode;
+
+        if (removed > 0) {
+            root = buildBalanced(arrayIterator(kept), count);
+            size = count;
+            modCount++;
+        }
+        return removed;
     }
 
     /**
-     * Private helper method to find the maximum node in a subtree
-     * @param node the root of the subtree
-     * @return the node with the maximum value
+     * Merges the elements of another tree into this one in O(n + m). Both trees
+     * are walked in order side by side, elements found in both are combined, and
+     * the result is rebuilt into a perfectly balanced tree. The other tree is
+     * left unchanged, though its elements may now also be held by this tree.
+     * The merged elements are collected before this tree is changed, so an
+     * exception from the combiner leaves its structure as it was. A combiner
+     * that changes the elements it is given, such as Word::merge, may already
+     * have changed some of them when a later call throws.
+     * @param other the tree whose elements are merged into this one
+     * @param combiner called with this tree's element and the other tree's
+     *            element when both trees hold equal elements; the element it
+     *            returns, which must compare equal to both, is kept
+     * @return the number of elements added to this tree
+     * @throws NullPointerException if the other tree or the combiner is null,
+     *             or the combiner returns null
+     * @throws IllegalArgumentException if the combiner returns an element that
+     *             does not compare equal to the elements it was given
      */
-    private BSTreeNode<E> findMax(BSTreeNode<E> node) {
-        while (node.getRight() != null) {
-            node = node.getRight();
+    public int merge(BSTree<E> other, BinaryOperator<E> combiner)
+            throws NullPointerException, IllegalArgumentException {
+        if (other == null || combiner == null) {
+            throw new NullPointerException("Tree and combiner cannot be null");
+        }
+
+        Object[] merged = new Object[size + other.size];
+        int count = 0;
+        Iterator<E> mine = inorderIterator();
+        Iterator<E> theirs = other.inorderIterator();
+        E a = mine.hasNext() ? mine.next() : null;
+        E b = theirs.hasNext() ? theirs.next() : null;
+        while (a != null || b != null) {
+            int comparison = a == null ? 1 : b == null ? -1 : a.compareTo(b);
+
+            if (comparison < 0) {
+                merged[count++] = a;
+                a = mine.hasNext() ? mine.next() : null;
+            } else if (comparison > 0) {
+                merged[count++] = b;
+                b = theirs.hasNext() ? theirs.next() : null;
+            } else {
+                E combined = combiner.apply(a, b);
+                if (combined == null) {
+                    throw new NullPointerException("Combiner cannot return a null entry");
+                }
+                if (combined.compareTo(a) != 0) {
+                    throw new IllegalArgumentException("Combined entry is out of order: " + combined);
+                }
+                merged[count++] = combined;
+                a = mine.hasNext() ? mine.next() : null;
+                b = theirs.hasNext() ? theirs.next() : null;
+            }
+        }
+
+        int added = count - size;
+        root = buildBalanced(arrayIterator(merged), count);
+        size = count;
+        modCount++; // Every node is replaced, even if no element was added
+        return added;
+    }
+
+    /**
+     * Collects a batch of elements, checking that they are in ascending order and
+     * dropping repeated elements, so a batch can be validated before a tree is
+     * changed
+     * @param <E> the type of elements in the batch
+     * @param entries iterator over the elements in ascending order
+     * @return the distinct elements in ascending order
+     * @throws NullPointerException if the iterator or any element is null
+     * @throws IllegalArgumentException if the elements are not in ascending order
+     */
+    static <E extends Comparable<? super E>> ArrayList<E> sortedBatch(Iterator<E> entries)
+            throws NullPointerException, IllegalArgumentException {
+        if (entries == null) {
+            throw new NullPointerException("Iterator cannot be null");
+        }
+
+        ArrayList<E> batch = new ArrayList<E>();
+        while (entries.hasNext()) {
+            E entry = entries.next();
+            if (entry == null) {
+                throw new NullPointerException("Entry cannot be null");
+            }
+            if (!batch.isEmpty()) {
+                int comparison = entry.compareTo(batch.get(batch.size() - 1));
+                if (comparison < 0) {
+                    throw new IllegalArgumentException("Entries are not in ascending order: " + entry);
+                }
+                if (comparison == 0) {
+                    continue; // Repeated element
+                }
+            }
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    /**
+     * Retrieves the node holding the element at a given position in the natural
+     * ordering, using the subtree sizes to descend straight to it in O(height).
+     * @param k the zero-based position of the element, 0 for the smallest
+     * @return the node with exactly k smaller elements in the tree
+     * @throws IndexOutOfBoundsException if k is negative or not less than size()
+     */
+    public BSTreeNode<E> select(int k) throws IndexOutOfBoundsException {
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("Index: " + k + ", Size: " + size);
+        }
+
+        BSTreeNode<E> node = root;
+        while (true) {
+            int leftSize = size(node.getLeft());
+
+            if (k < leftSize) {
+                node = node.getLeft();
+            } else if (k == leftSize) {
+                return node;
+            } else {
+                k -= leftSize + 1; // Skip the left subtree and this node
+                node = node.getRight();
+            }
+        }
+    }
+
+    /**
+     * Counts the elements in the tree that are smaller than the one passed in,
+     * using the subtree sizes to do so in O(height). The element does not need
+     * to be in the tree; if it is, the result is its position for select(int).
+     * @param entry the element to rank
+     * @return the number of elements strictly less than entry
+     * @throws NullPointerException if the element being passed in is null
+     */
+    public int rank(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+
+        int rank = 0;
+        BSTreeNode<E> node = root;
+        while (node != null) {
+            int comparison = entry.compareTo(node.getData());
+
+            if (comparison < 0) {
+                node = node.getLeft();
+            } else if (comparison == 0) {
+                return rank + size(node.getLeft());
+            } else {
+                rank += size(node.getLeft()) + 1; // Left subtree and this node are smaller
+                node = node.getRight();
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Retrieves the node with the largest element less than or equal to the one
+     * passed in.
+     * @param entry the element to compare against
+     * @return the matching node, or null if there is no such element
+     * @throws NullPointerException if the element being passed in is null
+     */
+    public BSTreeNode<E> floor(E entry) throws NullPointerException {
+        return nearest(entry, true, true);
+    }
+
+    /**
+     * Retrieves the node with the smallest element greater than or equal to the
+     * one passed in.
+     * @param entry the element to compare against
+     * @return the matching node, or null if there is no such element
+     * @throws NullPointerException if the element being passed in is null
+     */
+    public BSTreeNode<E> ceiling(E entry) throws NullPointerException {
+        return nearest(entry, false, true);
+    }
+
+    /**
+     * Retrieves the node with the largest element strictly less than the one
+     * passed in.
+     * @param entry the element to compare against
+     * @return the matching node, or null if there is no such element
+     * @throws NullPointerException if the element being passed in is null
+     */
+    public BSTreeNode<E> lower(E entry) throws NullPointerException {
+        return nearest(entry, true, false);
+    }
+
+    /**
+     * Retrieves the node with the smallest element strictly greater than the one
+     * passed in.
+     * @param entry the element to compare against
+     * @return the matching node, or null if there is no such element
+     * @throws NullPointerException if the element being passed in is null
+     */
+    public BSTreeNode<E> higher(E entry) throws NullPointerException {
+        return nearest(entry, false, false);
+    }
+
+    /**
+     * Private helper method that finds the closest node on one side of an entry
+     * in a single descent
+     * @param entry the element to compare against
+     * @param below true to look for smaller elements, false for larger ones
+     * @param inclusive true if an element equal to entry is a match
+     * @return the closest matching node, or null if there is none
+     */
+    private BSTreeNode<E> nearest(E entry, boolean below, boolean inclusive) {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+
+        BSTreeNode<E> best = null;
+        BSTreeNode<E> node = root;
+        while (node != null) {
+            int comparison = entry.compareTo(node.getData());
+
+            if (comparison == 0 && inclusive) {
+                return node;
+            }
+            if (below) {
+                if (comparison > 0) {
+                    best = node;               // Candidate, look for a closer one on the right
+                    node = node.getRight();
+                } else {
+                    node = node.getLeft();
+                }
+            } else {
+                if (comparison < 0) {
+                    best = node;               // Candidate, look for a closer one on the left
+                    node = node.getLeft();
+                } else {
+                    node = node.getRight();
+                }
+            }
+        }
+        return best;
+    }
+
+    // Helper methods for maintaining heights and balance
+
+    /**
+     * Gets the path buffer, making sure it can hold a descent from the root to
+     * one past the deepest node
+     * @return the reusable path buffer
+     */
+    @SuppressWarnings("unchecked")
+    private BSTreeNode<E>[] pathBuffer() {
+        int needed = height(root) + 1;
+        if (path == null || path.length < needed) {
+            int capacity = path == null ? 32 : path.length * 2; // Grow geometrically for deep trees
+            path = (BSTreeNode<E>[]) new BSTreeNode<?>[Math.max(needed, capacity)];
+        }
+        return path;
+    }
+
+    /**
+     * Walks back up a descent path after an insertion or removal, updating the
+     * height and size of each ancestor. A self-balancing tree also rebalances
+     * each ancestor and relinks any subtree that was rotated. Once a subtree
+     * keeps its previous height nothing above it can change shape, so only the
+     * sizes of the remaining ancestors are updated.
+     * @param path the nodes visited on the way down, root first
+     * @param depth the number of nodes in the path
+     */
+    private void retrace(BSTreeNode<E>[] path, int depth) {
+        boolean heightChanging = true;
+        for (int i = depth - 1; i >= 0; i--) {
+            BSTreeNode<E> node = path[i];
+            path[i] = null; // Do not keep removed nodes reachable
+            if (!heightChanging) {
+                updateSize(node);
+                continue;
+            }
+
+            int oldHeight = node.getHeight();
+            BSTreeNode<E> subtree;
+            if (selfBalancing) {
+                subtree = rebalance(node);
+            } else {
+                update(node);
+                subtree = node;
+            }
+
+            if (subtree != node) {
+                if (i == 0) {
+                    root = subtree;
+                } else if (path[i - 1].getLeft() == node) {
+                    path[i - 1].setLeft(subtree);
+                } else {
+                    path[i - 1].setRight(subtree);
+                }
+            }
+            heightChanging = subtree.getHeight() != oldHeight;
+        }
+    }
+
+    /**
+     * Walks back up a descent path after an insertion into a plain tree. Each
+     * ancestor gained exactly one node, and its height can only grow to one
+     * more than the height of the child on the path, so neither child has to
+     * be read. This keeps insertions into a degenerate tree, whose paths are
+     * as long as the tree, close to the cost of the descent alone.
+     * @param path the nodes visited, from the root down to the new node's parent
+     * @param depth the number of nodes on the path
+     */
+    private void retraceInsertion(BSTreeNode<E>[] path, int depth) {
+        int childHeight = 1; // The new leaf
+        for (int i = depth - 1; i >= 0; i--) {
+            BSTreeNode<E> node = path[i];
+            path[i] = null;
+            node.setSize(node.getSize() + 1);
+            if (childHeight >= node.getHeight()) {
+                node.setHeight(childHeight + 1);
+            }
+            childHeight = node.getHeight();
+        }
+    }
+
+    /**
+     * Gets the recorded height of a subtree
+     * @param node the root of the subtree, may be null
+     * @return the height of the subtree, 0 for an empty subtree
+     */
+    private int height(BSTreeNode<E> node) {
+        return node == null ? 0 : node.getHeight();
+    }
+
+    /**
+     * Gets the recorded size of a subtree
+     * @param node the root of the subtree, may be null
+     * @return the number of nodes in the subtree, 0 for an empty subtree
+     */
+    private int size(BSTreeNode<E> node) {
+        return node == null ? 0 : node.getSize();
+    }
+
+    /**
+     * Recomputes the recorded height and size of a node from its children
+     * @param node the node to update
+     */
+    private void update(BSTreeNode<E> node) {
+        node.setHeight(1 + Math.max(height(node.getLeft()), height(node.getRight())));
+        updateSize(node);
+    }
+
+    /**
+     * Recomputes the recorded size of a node from its children
+     * @param node the node to update
+     */
+    private void updateSize(BSTreeNode<E> node) {
+        node.setSize(1 + size(node.getLeft()) + size(node.getRight()));
+    }
+
+    /**
+     * Restores the AVL property at a node whose children are already balanced
+     * @param node the root of the subtree to rebalance
+     * @return the new root of the subtree
+     */
+    private BSTreeNode<E> rebalance(BSTreeNode<E> node) {
+        update(node);
+        int balance = height(node.getLeft()) - height(node.getRight());
+
+        if (balance > 1) {
+            // Left heavy - a left-right case needs a rotation of the left child first
+            if (height(node.getLeft().getLeft()) < height(node.getLeft().getRight())) {
+                node.setLeft(rotateLeft(node.getLeft()));
+            }
+            return rotateRight(node);
+        } else if (balance < -1) {
+            // Right heavy - a right-left case needs a rotation of the right child first
+            if (height(node.getRight().getRight()) < height(node.getRight().getLeft())) {
+                node.setRight(rotateRight(node.getRight()));
+            }
+            return rotateLeft(node);
         }
         return node;
     }
 
     /**
-     * Private recursive helper method to remove the maximum node
-     * @param node the current node
-     * @return the new root of the subtree after removal
+     * Rotates a subtree to the right, lifting its left child
+     * @param node the root of the subtree
+     * @return the new root of the subtree
      */
-    private BSTreeNode<E> removeMax(BSTreeNode<E> node) {
-        if (node.getRight() == null) {
-            return node.getLeft(); // Return left subtree
+    private BSTreeNode<E> rotateRight(BSTreeNode<E> node) {
+        BSTreeNode<E> pivot = node.getLeft();
+        node.setLeft(pivot.getRight());
+        pivot.setRight(node);
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Rotates a subtree to the left, lifting its right child
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private BSTreeNode<E> rotateLeft(BSTreeNode<E> node) {
+        BSTreeNode<E> pivot = node.getRight();
+        node.setRight(pivot.getLeft());
+        pivot.setLeft(node);
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Joins two subtrees around a node that orders between them. A plain tree
+     * simply hangs the subtrees from the node. A self-balancing tree hangs the
+     * shorter subtree from the spine of the taller one at the level where the
+     * heights match, then rebalances back up the spine, which costs time in
+     * proportion to the difference in heights.
+     * @param left the subtree of smaller elements, may be null
+     * @param node the node joining them, whose own children are replaced
+     * @param right the subtree of larger elements, may be null
+     * @return the root of the joined subtree
+     */
+    private BSTreeNode<E> join(BSTreeNode<E> left, BSTreeNode<E> node, BSTreeNode<E> right) {
+        if (selfBalancing) {
+            if (height(left) > height(right) + 1) {
+                left.setRight(join(left.getRight(), node, right));
+                return rebalance(left);
+            }
+            if (height(right) > height(left) + 1) {
+                right.setLeft(join(left, node, right.getLeft()));
+                return rebalance(right);
+            }
         }
-        node.setRight(removeMax(node.getRight()));
+        node.setLeft(left);
+        node.setRight(right);
+        update(node);
         return node;
     }
 
+    /**
+     * Adds the elements of a subtree to a list in order
+     * @param node the root of the subtree, may be null
+     * @param out the list to add to
+     * @param descending true to add the largest element first
+     */
+    private void collect(BSTreeNode<E> node, ArrayList<E> out, boolean descending) {
+        ArrayDeque<BSTreeNode<E>> stack = new ArrayDeque<BSTreeNode<E>>();
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = descending ? node.getRight() : node.getLeft();
+            }
+            node = stack.pop();
+            out.add(node.getElement());
+            node = descending ? node.getLeft() : node.getRight();
+        }
+    }
+
     @Override
     public Iterator<E> inorderIterator() {
-        ArrayList<E> elements = new ArrayList<E>();
-        inOrderTraversal(root, elements);
-        return new BSTreeIterator(elements);
+        return new InorderIterator();
     }
 
     @Override
     public Iterator<E> preorderIterator() {
-        ArrayList<E> elements = new ArrayList<E>();
-        preOrderTraversal(root, elements);
-        return new BSTreeIterator(elements);
+        return new PreorderIterator();
     }
 
     @Override
     public Iterator<E> postorderIterator() {
-        ArrayList<E> elements = new ArrayList<E>();
-        postOrderTraversal(root, elements);
-        return new BSTreeIterator(elements);
+        return new PostorderIterator();
     }
 
-    // Helper methods for traversals
-    private void inOrderTraversal(BSTreeNode<E> node, ArrayList<E> elements) {
-        if (node != null) {
-            inOrderTraversal(node.getLeft(), elements);   // Left
-            elements.add(node.getData());                 // Root
-            inOrderTraversal(node.getRight(), elements);  // Right
+    @Override
+    public Iterator<E> levelorderIterator() {
+        return new LevelorderIterator(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Iterator<E> levelorderIterator(int maxDepth) throws IllegalArgumentException {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Depth cannot be negative: " + maxDepth);
         }
+        return new LevelorderIterator(maxDepth);
     }
 
-    private void preOrderTraversal(BSTreeNode<E> node, ArrayList<E> elements) {
-        if (node != null) {
-            elements.add(node.getData());                 // Root
-            preOrderTraversal(node.getLeft(), elements);  // Left
-            preOrderTraversal(node.getRight(), elements); // Right
+    /**
+     * Generates an in-order iteration over a copy of the elements taken now. The
+     * tree can be changed freely while the copy is iterated, and the changes are
+     * not seen by the iteration. Taking the copy costs O(n) time and memory, so
+     * the lazy iterators should be preferred when the tree is not changed during
+     * the iteration.
+     * @return an iterator over a snapshot of the elements in their natural order
+     */
+    public Iterator<E> snapshotIterator() {
+        Object[] snapshot = new Object[size];
+        int count = 0;
+        Iterator<E> it = inorderIterator();
+        while (it.hasNext()) {
+            snapshot[count++] = it.next();
         }
+        return arrayIterator(snapshot);
     }
 
-    private void postOrderTraversal(BSTreeNode<E> node, ArrayList<E> elements) {
-        if (node != null) {
-            postOrderTraversal(node.getLeft(), elements);  // Left
-            postOrderTraversal(node.getRight(), elements); // Right
-            elements.add(node.getData());                  // Root
+    /**
+     * Saves the tree as its size followed by its elements in order, rather
+     * than as the default graph of nested node objects. This keeps the stream
+     * compact and lets very deep trees be written without recursion.
+     * @param out the stream to write the tree to
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("root", null); // The elements follow the fields instead
+        fields.put("size", size);
+        fields.put("selfBalancing", selfBalancing);
+        out.writeFields();
+        Iterator<E> it = inorderIterator();
+        while (it.hasNext()) {
+            out.writeObject(it.next());
         }
     }
 
-    // Inner Iterator Implementation
-    private class BSTreeIterator implements Iterator<E> {
-        private ArrayList<E> elements;
-        private int currentIndex;
+    /**
+     * Restores a tree written by writeObject, or saved as nested nodes by an
+     * earlier version, rebuilding it perfectly balanced in O(n) regardless of
+     * the shape it had when it was saved.
+     * @param in the stream to read the tree from
+     * @throws IOException if the stream cannot be read or holds an invalid tree
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        BSTreeNode<E> savedRoot = (BSTreeNode<E>) fields.get("root", null);
+        int count = fields.get("size", 0);
+        selfBalancing = fields.get("selfBalancing", false);
+        if (count < 0) {
+            throw new InvalidObjectException("Negative tree size: " + count);
+        }
 
-        public BSTreeIterator(ArrayList<E> elements) {
-            this.elements = elements;
-            this.currentIndex = 0;
+        // The array grows as elements arrive rather than trusting the saved size
+        Object[] elements = new Object[Math.min(count, 1024)];
+        int read = 0;
+        if (savedRoot != null) {
+            // Saved as nested nodes: collect them in order without recursion
+            ArrayDeque<BSTreeNode<E>> stack = new ArrayDeque<BSTreeNode<E>>();
+            BSTreeNode<E> node = savedRoot;
+            while (node != null || !stack.isEmpty()) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.getLeft();
+                }
+                node = stack.pop();
+                elements = appendAscending(elements, read++, node.getData());
+                node = node.getRight();
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                elements = appendAscending(elements, read++, (E) in.readObject());
+            }
+        }
+
+        root = buildBalanced(arrayIterator(elements), read);
+        size = read;
+    }
+
+    /**
+     * Adds an element read from a stream to the end of an array, growing the
+     * array if it is full
+     * @param elements the elements read so far
+     * @param index the number of elements read so far
+     * @param element the element to add
+     * @return the array holding the elements, which may be a new array
+     * @throws InvalidObjectException if the element is null or does not come
+     *             after the previous element
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Comparable<? super E>> Object[] appendAscending(Object[] elements, int index,
+            E element) throws InvalidObjectException {
+        if (element == null || (index > 0 && element.compareTo((E) elements[index - 1]) <= 0)) {
+            throw new InvalidObjectException("Tree elements are not in strictly ascending order");
+        }
+        if (index == elements.length) {
+            elements = Arrays.copyOf(elements, index + (index >> 1) + 1);
+        }
+        elements[index] = element;
+        return elements;
+    }
+
+    /**
+     * Generates an in-order iteration over the elements in a range of the tree.
+     * The iteration is lazy and only descends into subtrees that overlap the
+     * range, so a scan costs O(height + k) for k elements in the range.
+     * @param from the inclusive lower bound of the range
+     * @param to the exclusive upper bound of the range
+     * @return an iterator with the elements from the range in their natural order
+     * @throws NullPointerException if either bound is null
+     * @throws IllegalArgumentException if from is greater than to
+     */
+    public Iterator<E> rangeIterator(E from, E to) throws NullPointerException, IllegalArgumentException {
+        if (from == null || to == null) {
+            throw new NullPointerException("Range bounds cannot be null");
+        }
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("Range start is greater than range end");
+        }
+        return new InorderIterator(from, to);
+    }
+
+    /**
+     * Creates a Spliterator over the elements in their natural order. It splits
+     * a range of ranks in half, finding the middle element through the subtree
+     * sizes in O(height), so both halves have exact sizes and parallel work is
+     * evenly divided even when the tree is not balanced. The Spliterator binds to
+     * the tree when it is first split or advanced, and fails fast with a
+     * ConcurrentModificationException if the tree is changed after that.
+     * @return a Spliterator over the elements in their natural order
+     */
+    public Spliterator<E> spliterator() {
+        return new TreeSpliterator(0, -1, 0);
+    }
+
+    /**
+     * Creates a sequential Stream of the elements in their natural order
+     * @return a Stream over the elements of the tree
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Creates a parallel Stream of the elements, split across threads by the
+     * tree's Spliterator
+     * @return a possibly parallel Stream over the elements of the tree
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Checks that the tree has not been structurally changed since an iteration
+     * started
+     * @param expectedModCount the modification count when the iteration started
+     * @throws ConcurrentModificationException if the tree has been changed
+     */
+    private void checkForComodification(int expectedModCount) throws ConcurrentModificationException {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("Tree was modified during iteration");
+        }
+    }
+
+    // Inner Iterator Implementations
+    // Each iterator walks the tree lazily with an explicit stack, so the first
+    // element is available immediately and the extra memory is bounded by the
+    // height of the tree rather than its size. The iterators are fail-fast: once
+    // the tree is added to or removed from, next throws a
+    // ConcurrentModificationException instead of walking a changed structure.
+
+    /**
+     * Iterator over the elements in natural (left, root, right) order, optionally
+     * limited to a range. Only the subtrees that overlap the range are descended.
+     */
+    private class InorderIterator implements Iterator<E> {
+        private ArrayDeque<BSTreeNode<E>> stack = new ArrayDeque<BSTreeNode<E>>();
+        private E to;                          // Exclusive upper bound, or null for none
+        private final int expectedModCount = modCount;
+
+        public InorderIterator() {
+            pushLeftSpine(root);
+        }
+
+        /**
+         * Creates an iterator over the elements from one bound up to another
+         * @param from the inclusive lower bound
+         * @param to the exclusive upper bound
+         */
+        public InorderIterator(E from, E to) {
+            this.to = to;
+            // Push the search path for from, keeping only the nodes not below it
+            BSTreeNode<E> node = root;
+            while (node != null) {
+                if (from.compareTo(node.getData()) <= 0) {
+                    stack.push(node);
+                    node = node.getLeft();
+                } else {
+                    node = node.getRight();
+                }
+            }
+        }
+
+        /**
+         * Pushes a node and all of its left descendants onto the stack
+         * @param node the top of the spine to push
+         */
+        private void pushLeftSpine(BSTreeNode<E> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.getLeft();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty() && (to == null || stack.peek().getData().compareTo(to) < 0);
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            BSTreeNode<E> node = stack.pop();      // Root
+            pushLeftSpine(node.getRight());        // Right, after its left spine
+            return node.getData();
+        }
+    }
+
+    /**
+     * Iterator over the elements in root, left, right order
+     */
+    private class PreorderIterator implements Iterator<E> {
+        private ArrayDeque<BSTreeNode<E>> stack = new ArrayDeque<BSTreeNode<E>>();
+        private final int expectedModCount = modCount;
+
+        public PreorderIterator() {
+            if (root != null) {
+                stack.push(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            BSTreeNode<E> node = stack.pop();      // Root
+            if (node.getRight() != null) {
+                stack.push(node.getRight());       // Right, visited after left
+            }
+            if (node.getLeft() != null) {
+                stack.push(node.getLeft());        // Left
+            }
+            return node.getData();
+        }
+    }
+
+    /**
+     * Iterator over the elements in left, right, root order
+     */
+    private class PostorderIterator implements Iterator<E> {
+        private ArrayDeque<BSTreeNode<E>> stack = new ArrayDeque<BSTreeNode<E>>();
+        private final int expectedModCount = modCount;
+
+        public PostorderIterator() {
+            pushToFirstLeaf(root);
+        }
+
+        /**
+         * Pushes the path from a node down to the first leaf visited in post-order,
+         * preferring left children over right ones
+         * @param node the top of the path to push
+         */
+        private void pushToFirstLeaf(BSTreeNode<E> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.getLeft() != null ? node.getLeft() : node.getRight();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            BSTreeNode<E> node = stack.pop();
+            // Coming up from a left child means the parent's right subtree is next
+            BSTreeNode<E> parent = stack.peek();
+            if (parent != null && parent.getLeft() == node) {
+                pushToFirstLeaf(parent.getRight());
+            }
+            return node.getData();
+        }
+    }
+
+    /**
+     * Iterator over the elements level by level, down to a maximum depth. The
+     * queue only ever holds the rest of one level and the start of the next, and
+     * the children of the last level are never queued.
+     */
+    private class LevelorderIterator implements Iterator<E> {
+        private ArrayDeque<BSTreeNode<E>> queue = new ArrayDeque<BSTreeNode<E>>();
+        private final int maxDepth;
+        private int depth = 1;                 // Level of the node at the front of the queue
+        private int levelRemaining;            // Nodes of that level still in the queue
+        private final int expectedModCount = modCount;
+
+        public LevelorderIterator(int maxDepth) {
+            this.maxDepth = maxDepth;
+            if (root != null && maxDepth > 0) {
+                queue.add(root);
+                levelRemaining = 1;
+            }
         }
 
         @Override
         public boolean hasNext() {
-            return currentIndex < elements.size();
+            return !queue.isEmpty();
         }
 
         @Override
-        public E next() throws NoSuchElementException {
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
             if (!hasNext()) {
                 throw new NoSuchElementException("No more elements in iterator");
             }
-            return elements.get(currentIndex++);
+            BSTreeNode<E> node = queue.poll();
+            if (depth < maxDepth) {
+                if (node.getLeft() != null) {
+                    queue.add(node.getLeft());
+                }
+                if (node.getRight() != null) {
+                    queue.add(node.getRight());
+                }
+            }
+            if (--levelRemaining == 0) {
+                depth++;                           // The queue now holds exactly the next level
+                levelRemaining = queue.size();
+            }
+            return node.getData();
+        }
+    }
+
+    /**
+     * Spliterator over the elements with ranks from an origin up to a fence. The
+     * traversal stack is only built when the first element is taken, starting
+     * from the element at the origin, so splitting a fresh Spliterator costs
+     * nothing more than halving its range.
+     */
+    private class TreeSpliterator implements Spliterator<E> {
+        private int index;                     // Rank of the next element
+        private int fence;                     // One past the rank of the last element, -1 until bound
+        private int expectedModCount;          // Modification count when bound
+        private ArrayDeque<BSTreeNode<E>> stack; // Null until the traversal starts
+
+        public TreeSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        /**
+         * Binds to the current size of the tree on first use
+         * @return one past the rank of the last element
+         */
+        private int getFence() {
+            if (fence < 0) {
+                fence = size;
+                expectedModCount = modCount;
+            }
+            return fence;
+        }
+
+        /**
+         * Pushes the path to the element at the current rank, keeping only the
+         * nodes that come after it in order
+         */
+        private void start() {
+            stack = new ArrayDeque<BSTreeNode<E>>();
+            BSTreeNode<E> node = root;
+            int k = index;
+            while (node != null) {
+                int leftSize = size(node.getLeft());
+                if (k <= leftSize) {
+                    stack.push(node);
+                    if (k == leftSize) {
+                        break; // Found the element at the rank
+                    }
+                    node = node.getLeft();
+                } else {
+                    k -= leftSize + 1;
+                    node = node.getRight();
+                }
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (action == null) {
+                throw new NullPointerException("Action cannot be null");
+            }
+            if (index >= getFence()) {
+                return false;
+            }
+            checkForComodification(expectedModCount);
+            if (stack == null) {
+                start();
+            }
+
+            BSTreeNode<E> node = stack.pop();
+            for (BSTreeNode<E> next = node.getRight(); next != null; next = next.getLeft()) {
+                stack.push(next);
+            }
+            index++;
+            action.accept(node.getData());
+            return true;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int middle = (index + getFence()) >>> 1;
+            if (middle <= index) {
+                return null; // Too small to split
+            }
+            Spliterator<E> prefix = new TreeSpliterator(index, middle, expectedModCount);
+            index = middle;
+            stack = null; // Restart the traversal at the new origin
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | SIZED | SUBSIZED | NONNULL;
+        }
+
+        @Override
+        public Comparator<? super E> getComparator() {
+            return null; // Natural ordering
         }
     }
-}
\ No newline at end of file
+}
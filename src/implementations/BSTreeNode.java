@@ -15,6 +15,8 @@ public class BSTreeNode<E> implements Serializable {
     private E data;                    // The actual data stored in this node
     private BSTreeNode<E> left;        // Reference to left child (smaller values)
     private BSTreeNode<E> right;       // Reference to right child (larger values)
+    private int height;                // Height of the subtree rooted at this node
+    private int size;                  // Number of nodes in the subtree rooted at this node
 
     /**
      * Constructor to create a new node with data
@@ -24,6 +26,8 @@ public class BSTreeNode<E> implements Serializable {
         this.data = data;
         this.left = null;
         this.right = null;
+        this.height = 1;
+        this.size = 1;
     }
 
     /**
@@ -36,6 +40,8 @@ public class BSTreeNode<E> implements Serializable {
         this.data = data;
         this.left = left;
         this.right = right;
+        this.height = 1 + Math.max(left == null ? 0 : left.height, right == null ? 0 : right.height);
+        this.size = 1 + (left == null ? 0 : left.size) + (right == null ? 0 : right.size);
     }
 
     // Getter and Setter Methods
@@ -96,6 +102,41 @@ public class BSTreeNode<E> implements Serializable {
         this.right = right;
     }
 
+    /**
+     * Gets the height of the subtree rooted at this node, where a leaf has height 1.
+     * BSTree keeps this value up to date as it adds and removes nodes, so changing
+     * the children of a node that is in a tree will leave it stale.
+     * @return the height recorded for this node
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Sets the height of the subtree rooted at this node
+     * @param height the new height to record
+     */
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    /**
+     * Gets the number of nodes in the subtree rooted at this node, including itself.
+     * Like the height, BSTree keeps this value up to date as it adds and removes nodes.
+     * @return the size recorded for this node
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the number of nodes in the subtree rooted at this node
+     * @param size the new size to record
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
     // Utility Methods
 
     /**
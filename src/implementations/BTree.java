@@ -0,0 +1,946 @@
+package implementations;
+
+import utilities.BSTreeADT;
+import utilities.Iterator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * BTree is a B-tree implementation of the BSTreeADT. Each node holds a sorted
+ * array of up to 2t - 1 elements and, if it is not a leaf, one more child than
+ * elements. The wide fan-out keeps the tree very shallow, and a lookup binary
+ * searches a few compact arrays instead of following one pointer per level,
+ * which greatly reduces cache misses on large vocabularies.
+ *
+ * The tree has no BSTreeNode objects, so the nodes returned by getRoot,
+ * search, removeMin and removeMax are detached copies holding the element;
+ * their children are not linked. The pre-order iteration visits the elements
+ * of a node before those of its children, and the post-order iteration visits
+ * them after all of its children. The level-order iteration returns the
+ * elements of each level of nodes from left to right, so its depth limit counts
+ * levels of nodes rather than elements.
+ *
+ * @param <E> The type of elements stored in the tree
+ */
+public class BTree<E extends Comparable<? super E>> implements BSTreeADT<E>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int DEFAULT_MINIMUM_DEGREE = 32;
+
+    // Removal targets for delete
+    private static final int KEY = 0;
+    private static final int MIN = 1;
+    private static final int MAX = 2;
+
+    // Attributes
+    private final int minimumDegree;       // t: every node but the root holds t - 1 to 2t - 1 elements
+    private transient Node root;           // Saved as an ordered list of elements, see writeObject
+    private transient int size;
+    private transient int modCount;        // Number of structural changes, checked by iterators to fail fast
+
+    /**
+     * A B-tree node with its elements in ascending order
+     */
+    private static final class Node {
+        private Object[] keys;
+        private Node[] children;           // null for a leaf
+        private int count;                 // Number of elements in use
+
+        Node(int minimumDegree, boolean leaf) {
+            keys = new Object[2 * minimumDegree - 1];
+            children = leaf ? null : new Node[2 * minimumDegree];
+        }
+
+        boolean isLeaf() {
+            return children == null;
+        }
+    }
+
+    // Constructors
+    public BTree() {
+        this(DEFAULT_MINIMUM_DEGREE);
+    }
+
+    /**
+     * Creates an empty B-tree with a given minimum degree
+     * @param minimumDegree t, the minimum number of children of an internal node
+     *                      other than the root; nodes hold at most 2t - 1 elements
+     * @throws IllegalArgumentException if minimumDegree is less than 2
+     */
+    public BTree(int minimumDegree) throws IllegalArgumentException {
+        if (minimumDegree < 2) {
+            throw new IllegalArgumentException("Minimum degree must be at least 2: " + minimumDegree);
+        }
+        this.minimumDegree = minimumDegree;
+        this.root = null;
+        this.size = 0;
+    }
+
+    /**
+     * Returns a detached node holding the middle element of the root node, which
+     * is the element closest to what the root of a binary tree would hold
+     */
+    @Override
+    public BSTreeNode<E> getRoot() throws NullPointerException {
+        if (root == null) {
+            throw new NullPointerException("Tree is empty - no root node");
+        }
+        return new BSTreeNode<E>(key(root, root.count / 2));
+    }
+
+    /**
+     * Returns the number of node levels, since all leaves are at the same depth
+     */
+    @Override
+    public int getHeight() {
+        int height = 0;
+        for (Node node = root; node != null; node = node.isLeaf() ? null : node.children[0]) {
+            height++;
+        }
+        return height;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public boolean contains(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        return find(entry) != null;
+    }
+
+    @Override
+    public BSTreeNode<E> search(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        E found = find(entry);
+        return found == null ? null : new BSTreeNode<E>(found);
+    }
+
+    /**
+     * Private helper method that finds the element matching a key
+     * @param key the key to search for
+     * @return the matching element, or null if not found
+     */
+    private E find(Comparable<? super E> key) {
+        Node node = root;
+        while (node != null) {
+            int index = indexOf(node, key);
+
+            if (index >= 0) {
+                return key(node, index); // Found the entry
+            }
+            node = node.isLeaf() ? null : node.children[-index - 1];
+        }
+        return null; // Entry not found
+    }
+
+    @Override
+    public boolean add(E newEntry) throws NullPointerException {
+        if (newEntry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+
+        int oldSize = size;
+        insert(newEntry, newEntry, null);
+        return size != oldSize;
+    }
+
+    @Override
+    public E getOrAdd(E newEntry) throws NullPointerException {
+        if (newEntry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        return insert(newEntry, newEntry, null);
+    }
+
+    @Override
+    public E computeIfAbsent(Comparable<? super E> key, Supplier<? extends E> factory)
+            throws NullPointerException {
+        if (key == null || factory == null) {
+            throw new NullPointerException("Key and factory cannot be null");
+        }
+        return insert(key, null, factory);
+    }
+
+    /**
+     * Private helper method that finds the element matching a key, or inserts a
+     * new one, in a single top-down pass. Full nodes on the way down are split
+     * before descending into them, so the leaf always has room for the new element.
+     * @param key the key to search for
+     * @param newEntry the entry to insert if the key is not found, or null to
+     *                 create it with the factory instead
+     * @param factory creates the entry to insert when newEntry is null
+     * @return the element found in the tree, or the element inserted
+     */
+    private E insert(Comparable<? super E> key, E newEntry, Supplier<? extends E> factory) {
+        if (root == null) {
+            root = new Node(minimumDegree, true);
+        } else if (root.count == root.keys.length) {
+            // Grow the tree upwards by splitting a full root
+            Node oldRoot = root;
+            root = new Node(minimumDegree, false);
+            root.children[0] = oldRoot;
+            splitChild(root, 0);
+        }
+
+        Node node = root;
+        while (true) {
+            int index = indexOf(node, key);
+            if (index >= 0) {
+                return key(node, index); // Already in the tree - not added
+            }
+            index = -index - 1;
+
+            if (node.isLeaf()) {
+                E created = create(newEntry, factory);
+                System.arraycopy(node.keys, index, node.keys, index + 1, node.count - index);
+                node.keys[index] = created;
+                node.count++;
+                size++;
+                modCount++;
+                return created;
+            }
+
+            if (node.children[index].count == node.keys.length) {
+                splitChild(node, index);
+                int comparison = key.compareTo(key(node, index)); // Compare with the promoted median
+                if (comparison == 0) {
+                    return key(node, index);
+                } else if (comparison > 0) {
+                    index++;
+                }
+            }
+            node = node.children[index];
+        }
+    }
+
+    /**
+     * Private helper method that produces the entry to insert
+     * @param newEntry the entry to insert, or null to use the factory
+     * @param factory creates the entry when newEntry is null
+     * @return the entry to insert
+     * @throws NullPointerException if the factory creates a null entry
+     */
+    private E create(E newEntry, Supplier<? extends E> factory) {
+        if (newEntry != null) {
+            return newEntry;
+        }
+        E created = factory.get();
+        if (created == null) {
+            throw new NullPointerException("Factory cannot create a null entry");
+        }
+        return created;
+    }
+
+    @Override
+    public BSTreeNode<E> removeMin() {
+        if (root == null) {
+            return null; // Tree is empty
+        }
+        return new BSTreeNode<E>(delete(null, MIN));
+    }
+
+    @Override
+    public BSTreeNode<E> removeMax() {
+        if (root == null) {
+            return null; // Tree is empty
+        }
+        return new BSTreeNode<E>(delete(null, MAX));
+    }
+
+    @Override
+    public BSTreeNode<E> remove(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        if (root == null) {
+            return null; // Tree is empty
+        }
+        E removed = delete(entry, KEY);
+        return removed == null ? null : new BSTreeNode<E>(removed);
+    }
+
+    /**
+     * Removes a sorted batch of elements one at a time
+     * @param entries iterator over the elements to remove in ascending order
+     * @return the number of elements removed from the tree
+     * @throws NullPointerException if the iterator or any element is null
+     * @throws IllegalArgumentException if the elements are not in ascending order
+     */
+    @Override
+    public int removeAll(Iterator<E> entries) throws NullPointerException, IllegalArgumentException {
+        int removed = 0;
+        for (E entry : BSTree.sortedBatch(entries)) {
+            if (remove(entry) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Private helper method that removes an element in a single top-down pass.
+     * Before descending into a child that holds the minimum t - 1 elements, an
+     * element is borrowed from a sibling or the child is merged with one, so the
+     * element can always be taken out of a leaf without any fix-ups on the way
+     * back up.
+     * @param key the key to remove when target is KEY, otherwise ignored
+     * @param target KEY to remove the element matching key, MIN for the
+     *               smallest element or MAX for the largest
+     * @return the removed element, or null if the key was not found
+     */
+    private E delete(Comparable<? super E> key, int target) {
+        Node node = root;
+        Node holder = null;                // Internal node whose element is being replaced
+        int holderIndex = 0;
+        E removed = null;
+
+        while (true) {
+            int index;
+            boolean found;
+            if (target == KEY) {
+                index = indexOf(node, key);
+                found = index >= 0;
+                if (!found) {
+                    index = -index - 1;
+                }
+            } else {
+                index = target == MIN ? 0 : node.isLeaf() ? node.count - 1 : node.count;
+                found = node.isLeaf();
+            }
+
+            if (node.isLeaf()) {
+                if (!found) {
+                    break; // Key is not in the tree
+                }
+                E element = key(node, index);
+                System.arraycopy(node.keys, index + 1, node.keys, index, node.count - index - 1);
+                node.keys[--node.count] = null;
+                size--;
+                modCount++;
+
+                if (holder != null) {
+                    holder.keys[holderIndex] = element; // Predecessor or successor moves up
+                } else {
+                    removed = element;
+                }
+                break;
+            }
+
+            if (found) {
+                // The element is in this internal node: replace it with its predecessor
+                // or successor, or merge its two children around it and keep going
+                Node before = node.children[index];
+                Node after = node.children[index + 1];
+                if (before.count >= minimumDegree) {
+                    removed = key(node, index);
+                    holder = node;
+                    holderIndex = index;
+                    target = MAX;
+                    node = before;
+                } else if (after.count >= minimumDegree) {
+                    removed = key(node, index);
+                    holder = node;
+                    holderIndex = index;
+                    target = MIN;
+                    node = after;
+                } else {
+                    merge(node, index);
+                    node = before;
+                }
+                continue;
+            }
+
+            node = ensureRoomInChild(node, index);
+        }
+
+        // A root emptied by a merge gives way to its only child
+        if (root.count == 0) {
+            root = root.isLeaf() ? null : root.children[0];
+        }
+        return removed;
+    }
+
+    @Override
+    public Iterator<E> inorderIterator() {
+        return new InorderIterator();
+    }
+
+    @Override
+    public Iterator<E> preorderIterator() {
+        return new PreorderIterator();
+    }
+
+    @Override
+    public Iterator<E> postorderIterator() {
+        return new PostorderIterator();
+    }
+
+    @Override
+    public Iterator<E> levelorderIterator() {
+        return new LevelorderIterator(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Iterator<E> levelorderIterator(int maxDepth) throws IllegalArgumentException {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Depth cannot be negative: " + maxDepth);
+        }
+        return new LevelorderIterator(maxDepth);
+    }
+
+    // Helper methods for node maintenance
+
+    /**
+     * Binary searches the elements of a node
+     * @param node the node to search
+     * @param key the key to search for
+     * @return the index of the matching element, or (-(insertion point) - 1) if
+     *         there is none, where the insertion point is also the child to descend into
+     */
+    private int indexOf(Node node, Comparable<? super E> key) {
+        int low = 0;
+        int high = node.count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = key.compareTo(key(node, middle));
+
+            if (comparison == 0) {
+                return middle;
+            } else if (comparison < 0) {
+                high = middle - 1;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Gets an element stored in a node
+     * @param node the node holding the element
+     * @param index the position of the element in the node
+     * @return the element
+     */
+    @SuppressWarnings("unchecked")
+    private E key(Node node, int index) {
+        return (E) node.keys[index];
+    }
+
+    /**
+     * Splits a full child in two around its median element, which moves up into
+     * the parent
+     * @param parent a node with room for one more element
+     * @param index the position of the full child in the parent
+     */
+    private void splitChild(Node parent, int index) {
+        int t = minimumDegree;
+        Node full = parent.children[index];
+        Node sibling = new Node(t, full.isLeaf());
+
+        // The upper t - 1 elements and t children move to the new sibling
+        System.arraycopy(full.keys, t, sibling.keys, 0, t - 1);
+        if (!full.isLeaf()) {
+            System.arraycopy(full.children, t, sibling.children, 0, t);
+            java.util.Arrays.fill(full.children, t, 2 * t, null);
+        }
+        sibling.count = t - 1;
+        Object median = full.keys[t - 1];
+        java.util.Arrays.fill(full.keys, t - 1, 2 * t - 1, null);
+        full.count = t - 1;
+
+        // The median and the sibling are inserted into the parent
+        System.arraycopy(parent.children, index + 1, parent.children, index + 2, parent.count - index);
+        parent.children[index + 1] = sibling;
+        System.arraycopy(parent.keys, index, parent.keys, index + 1, parent.count - index);
+        parent.keys[index] = median;
+        parent.count++;
+        modCount++;
+    }
+
+    /**
+     * Merges a child, the parent element after it and the next child into one node
+     * @param parent the node holding both children
+     * @param index the position of the first child; both children hold t - 1 elements
+     */
+    private void merge(Node parent, int index) {
+        Node first = parent.children[index];
+        Node second = parent.children[index + 1];
+
+        first.keys[first.count] = parent.keys[index];
+        System.arraycopy(second.keys, 0, first.keys, first.count + 1, second.count);
+        if (!first.isLeaf()) {
+            System.arraycopy(second.children, 0, first.children, first.count + 1, second.count + 1);
+        }
+        first.count += second.count + 1;
+
+        System.arraycopy(parent.keys, index + 1, parent.keys, index, parent.count - index - 1);
+        System.arraycopy(parent.children, index + 2, parent.children, index + 1, parent.count - index - 1);
+        parent.count--;
+        parent.keys[parent.count] = null;
+        parent.children[parent.count + 1] = null;
+        modCount++;
+    }
+
+    /**
+     * Makes sure a child holds at least t elements before descending into it, by
+     * borrowing an element through the parent from a sibling with one to spare,
+     * or else merging the child with a sibling
+     * @param parent the node holding the child
+     * @param index the position of the child in the parent
+     * @return the node to descend into
+     */
+    private Node ensureRoomInChild(Node parent, int index) {
+        Node child = parent.children[index];
+        if (child.count >= minimumDegree) {
+            return child;
+        }
+
+        Node leftSibling = index > 0 ? parent.children[index - 1] : null;
+        Node rightSibling = index < parent.count ? parent.children[index + 1] : null;
+
+        if (leftSibling != null && leftSibling.count >= minimumDegree) {
+            // Rotate right: parent element moves down, left sibling's last moves up
+            System.arraycopy(child.keys, 0, child.keys, 1, child.count);
+            child.keys[0] = parent.keys[index - 1];
+            if (!child.isLeaf()) {
+                System.arraycopy(child.children, 0, child.children, 1, child.count + 1);
+                child.children[0] = leftSibling.children[leftSibling.count];
+                leftSibling.children[leftSibling.count] = null;
+            }
+            child.count++;
+            parent.keys[index - 1] = leftSibling.keys[leftSibling.count - 1];
+            leftSibling.keys[--leftSibling.count] = null;
+            modCount++;
+            return child;
+        }
+
+        if (rightSibling != null && rightSibling.count >= minimumDegree) {
+            // Rotate left: parent element moves down, right sibling's first moves up
+            child.keys[child.count] = parent.keys[index];
+            if (!child.isLeaf()) {
+                child.children[child.count + 1] = rightSibling.children[0];
+                System.arraycopy(rightSibling.children, 1, rightSibling.children, 0, rightSibling.count);
+                rightSibling.children[rightSibling.count] = null;
+            }
+            child.count++;
+            parent.keys[index] = rightSibling.keys[0];
+            System.arraycopy(rightSibling.keys, 1, rightSibling.keys, 0, rightSibling.count - 1);
+            rightSibling.keys[--rightSibling.count] = null;
+            modCount++;
+            return child;
+        }
+
+        if (rightSibling != null) {
+            merge(parent, index);
+            return child;
+        }
+        merge(parent, index - 1);
+        return leftSibling;
+    }
+
+    // Serialization
+
+    /**
+     * Saves the tree as a size header followed by its elements in order
+     * @param out the stream to write the tree to
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject(); // Writes the minimum degree
+        out.writeInt(size);
+        Iterator<E> it = inorderIterator();
+        while (it.hasNext()) {
+            out.writeObject(it.next());
+        }
+    }
+
+    /**
+     * Restores a tree written by writeObject, loading its elements bottom-up in
+     * O(n). Nodes are filled from left to right as the elements arrive, so every
+     * node is full except along the right edge of the tree, which is then
+     * topped up from the full nodes to its left.
+     * @param in the stream to read the tree from
+     * @throws IOException if the stream cannot be read or holds an invalid tree
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (minimumDegree < 2) {
+            throw new InvalidObjectException("Minimum degree must be at least 2: " + minimumDegree);
+        }
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Negative tree size: " + count);
+        }
+
+        // The node being filled on each level, from the leaf up to the root
+        ArrayList<Node> edge = new ArrayList<Node>();
+        edge.add(new Node(minimumDegree, true));
+        E previous = null;
+        for (int i = 0; i < count; i++) {
+            E element = (E) in.readObject();
+            if (element == null || (previous != null && element.compareTo(previous) <= 0)) {
+                throw new InvalidObjectException("Tree elements are not in strictly ascending order");
+            }
+            append(edge, element);
+            previous = element;
+        }
+
+        root = count == 0 ? null : edge.get(edge.size() - 1);
+        size = count;
+        for (Node node = root; node != null && !node.isLeaf(); node = node.children[node.count]) {
+            fillLastChild(node);
+        }
+    }
+
+    /**
+     * Adds an element after all the elements loaded so far. A full node on the
+     * right edge is left as it is, the element moves up to its parent, and a new
+     * node takes its place on the edge.
+     * @param edge the node being filled on each level, from the leaf up
+     * @param element the element to add
+     */
+    private void append(ArrayList<Node> edge, Object element) {
+        Node child = null;                 // New node on the level below, linked after the element
+        Node full = null;
+        for (int level = 0; level < edge.size(); level++) {
+            Node node = edge.get(level);
+            if (node.count < node.keys.length) {
+                node.keys[node.count++] = element;
+                if (child != null) {
+                    node.children[node.count] = child;
+                }
+                return;
+            }
+            Node next = new Node(minimumDegree, node.isLeaf());
+            if (child != null) {
+                next.children[0] = child;
+            }
+            edge.set(level, next);
+            full = node;
+            child = next;
+        }
+
+        // Every node on the edge was full, so the tree grows a new root
+        Node top = new Node(minimumDegree, false);
+        top.keys[0] = element;
+        top.children[0] = full;
+        top.children[1] = child;
+        top.count = 1;
+        edge.add(top);
+    }
+
+    /**
+     * Tops up the last child of a node to t - 1 elements by moving elements
+     * through the parent from the full sibling before it
+     * @param parent a node on the right edge of a bulk-loaded tree
+     */
+    private void fillLastChild(Node parent) {
+        Node child = parent.children[parent.count];
+        int moved = minimumDegree - 1 - child.count;
+        if (moved <= 0) {
+            return;
+        }
+        Node sibling = parent.children[parent.count - 1];
+        int kept = sibling.count - moved;
+
+        // The parent element and the sibling's last elements move into the child
+        System.arraycopy(child.keys, 0, child.keys, moved, child.count);
+        child.keys[moved - 1] = parent.keys[parent.count - 1];
+        System.arraycopy(sibling.keys, kept + 1, child.keys, 0, moved - 1);
+        parent.keys[parent.count - 1] = sibling.keys[kept];
+        java.util.Arrays.fill(sibling.keys, kept, sibling.count, null);
+        if (!child.isLeaf()) {
+            System.arraycopy(child.children, 0, child.children, moved, child.count + 1);
+            System.arraycopy(sibling.children, kept + 1, child.children, 0, moved);
+            java.util.Arrays.fill(sibling.children, kept + 1, sibling.count + 1, null);
+        }
+        child.count += moved;
+        sibling.count = kept;
+    }
+
+    /**
+     * Checks that the tree has not been structurally changed since an iteration
+     * started
+     * @param expectedModCount the modification count when the iteration started
+     * @throws ConcurrentModificationException if the tree has been changed
+     */
+    private void checkForComodification(int expectedModCount) throws ConcurrentModificationException {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("Tree was modified during iteration");
+        }
+    }
+
+    // Inner Iterator Implementations
+    // Each iterator walks the tree lazily with a stack of (node, position) frames,
+    // so the extra memory is bounded by the height of the tree. The iterators are
+    // fail-fast: once the tree is added to or removed from, or a node is split,
+    // merged or borrowed from on the way, next throws a
+    // ConcurrentModificationException instead of reading slots that have moved.
+
+    /**
+     * Base class holding the stack of frames shared by the iterators
+     */
+    private abstract class FrameIterator implements Iterator<E> {
+        protected Node[] nodes = new Node[getHeight()];
+        protected int[] positions = new int[nodes.length];
+        protected int top = 0;
+        protected final int expectedModCount = modCount;
+
+        /**
+         * Pushes a frame for a node
+         * @param node the node to push
+         */
+        protected void push(Node node) {
+            nodes[top] = node;
+            positions[top] = 0;
+            top++;
+        }
+
+        /**
+         * Pops the top frame
+         */
+        protected void pop() {
+            nodes[--top] = null;
+        }
+    }
+
+    /**
+     * Iterator over the elements in natural order
+     */
+    private class InorderIterator extends FrameIterator {
+
+        public InorderIterator() {
+            pushLeftSpine(root);
+        }
+
+        /**
+         * Pushes a node and the first child of each node below it
+         * @param node the top of the spine to push
+         */
+        private void pushLeftSpine(Node node) {
+            while (node != null) {
+                push(node);
+                node = node.isLeaf() ? null : node.children[0];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            Node node = nodes[top - 1];
+            int index = positions[top - 1];
+            if (index + 1 < node.count) {
+                positions[top - 1] = index + 1;
+            } else {
+                pop();
+            }
+            if (!node.isLeaf()) {
+                pushLeftSpine(node.children[index + 1]); // Child between this element and the next
+            }
+            return key(node, index);
+        }
+    }
+
+    /**
+     * Iterator over the elements of each node before those of its children
+     */
+    private class PreorderIterator extends FrameIterator {
+
+        public PreorderIterator() {
+            if (root != null) {
+                push(root);
+            }
+            advance();
+        }
+
+        /**
+         * Moves to the next frame with an element left to return. A frame's
+         * position counts its elements first, then its children.
+         */
+        private void advance() {
+            while (top > 0) {
+                Node node = nodes[top - 1];
+                int position = positions[top - 1];
+                if (position < node.count) {
+                    return; // An element of this node is next
+                }
+                int child = position - node.count;
+                if (node.isLeaf() || child > node.count) {
+                    pop();
+                } else {
+                    positions[top - 1] = position + 1;
+                    push(node.children[child]);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            E element = key(nodes[top - 1], positions[top - 1]++);
+            advance();
+            return element;
+        }
+    }
+
+    /**
+     * Iterator over the elements of each node after those of all its children
+     */
+    private class PostorderIterator extends FrameIterator {
+
+        public PostorderIterator() {
+            if (root != null) {
+                push(root);
+            }
+            advance();
+        }
+
+        /**
+         * Moves to the next frame with an element left to return. A frame's
+         * position counts its children first, then its elements.
+         */
+        private void advance() {
+            while (top > 0) {
+                Node node = nodes[top - 1];
+                int position = positions[top - 1];
+                int children = node.isLeaf() ? 0 : node.count + 1;
+                if (position < children) {
+                    positions[top - 1] = position + 1;
+                    push(node.children[position]);
+                } else if (position - children < node.count) {
+                    return; // An element of this node is next
+                } else {
+                    pop();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            Node node = nodes[top - 1];
+            int children = node.isLeaf() ? 0 : node.count + 1;
+            E element = key(node, positions[top - 1]++ - children);
+            advance();
+            return element;
+        }
+    }
+
+    /**
+     * Iterator over the elements level by level, down to a maximum depth. The
+     * elements of each node are returned in order before moving on to the next
+     * node, and the children of the last level are never queued.
+     */
+    private class LevelorderIterator implements Iterator<E> {
+        private ArrayDeque<Node> queue = new ArrayDeque<Node>();
+        private final int maxDepth;
+        private int depth = 1;                 // Level of the current node
+        private int levelRemaining = 0;        // Nodes of that level still in the queue
+        private Node node;                     // Node whose elements are being returned
+        private int position;
+        private final int expectedModCount = modCount;
+
+        public LevelorderIterator(int maxDepth) {
+            this.maxDepth = maxDepth;
+            if (root != null && maxDepth > 0) {
+                queue.add(root);
+                levelRemaining = 1;
+            }
+            take();
+        }
+
+        /**
+         * Moves on to the next node in the queue, queueing its children unless it
+         * is on the last level
+         */
+        private void take() {
+            if (levelRemaining == 0) {
+                depth++;                           // The queue now holds exactly the next level
+                levelRemaining = queue.size();
+            }
+            node = queue.poll();
+            position = 0;
+            if (node == null) {
+                return;
+            }
+            levelRemaining--;
+            if (depth < maxDepth && !node.isLeaf()) {
+                for (int i = 0; i <= node.count; i++) {
+                    queue.add(node.children[i]);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return node != null;
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            E element = key(node, position++);
+            if (position == node.count) {
+                take();
+            }
+            return element;
+        }
+    }
+}
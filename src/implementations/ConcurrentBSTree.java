@@ -0,0 +1,653 @@
+package implementations;
+
+import utilities.BSTreeADT;
+import utilities.Iterator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * ConcurrentBSTree is a thread-safe Binary Search Tree, so several threads can
+ * add elements to one shared tree without holding a lock around every call.
+ *
+ * Searches do not lock: they walk the tree under an optimistic stamp from a
+ * StampedLock and only retry under the read lock if a removal ran while they
+ * were walking. Insertions share the read lock with each other and link a new
+ * leaf with a single compare-and-set on the empty child link it found. If
+ * another thread links a node there first, the insertion carries on from that
+ * node, so getOrAdd and computeIfAbsent are linearizable: every thread adding
+ * equal elements gets back the same instance. Removals take the write lock,
+ * which waits for insertions in progress and sends searches in progress back
+ * to retry.
+ *
+ * The tree does not rebalance itself, since rotations would need to lock every
+ * node they move, so its shape depends on the order elements are added in, as
+ * with a BSTree that is not self-balancing. This is a real limitation for
+ * sorted input, such as a glossary or a word list: the tree degrades into a
+ * chain, every add, search and removal then takes O(n) steps, and threads
+ * adding elements no longer scale, since each one walks the whole chain. Such
+ * input should be shuffled first, or loaded into a self-balancing BSTree.
+ * getHeight visits every node under the read lock, so it takes O(n) time
+ * whatever the shape of the tree. The nodes returned by search,
+ * getRoot and the removals are detached copies, and each iterator works over a
+ * snapshot of the elements taken when it is created.
+ *
+ * @param <E> The type of elements stored in the tree
+ */
+public class ConcurrentBSTree<E extends Comparable<? super E>> implements BSTreeADT<E>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> LEFT =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "left");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> RIGHT =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "right");
+
+    // Attributes
+    private transient Node<E> head;        // Sentinel whose right child is the root, saved as an ordered list of elements
+    private transient StampedLock lock;    // Shared by insertions, exclusive for removals
+    private transient LongAdder count;     // Number of elements, updated without contention
+
+    // Constructors
+    public ConcurrentBSTree() {
+        init();
+    }
+
+    /**
+     * Creates the sentinel, lock and counter of an empty tree
+     */
+    private void init() {
+        head = new Node<E>(null);
+        lock = new StampedLock();
+        count = new LongAdder();
+    }
+
+    /**
+     * Gets a detached copy of the root node, since the root can be replaced at
+     * any time by another thread
+     */
+    @Override
+    public BSTreeNode<E> getRoot() throws NullPointerException {
+        Node<E> root = head.right;
+        if (root == null) {
+            throw new NullPointerException("Tree is empty - no root node");
+        }
+        return new BSTreeNode<E>(root.element);
+    }
+
+    /**
+     * Counts the levels breadth-first, since nodes do not record their heights.
+     * Takes O(n) time and holds the read lock, so removals wait for it.
+     */
+    @Override
+    public int getHeight() {
+        long stamp = lock.readLock();
+        try {
+            ArrayDeque<Node<E>> level = new ArrayDeque<Node<E>>();
+            if (head.right != null) {
+                level.add(head.right);
+            }
+            int height = 0;
+            while (!level.isEmpty()) {
+                height++;
+                for (int remaining = level.size(); remaining > 0; remaining--) {
+                    Node<E> node = level.poll();
+                    Node<E> left = node.left;
+                    Node<E> right = node.right;
+                    if (left != null) {
+                        level.add(left);
+                    }
+                    if (right != null) {
+                        level.add(right);
+                    }
+                }
+            }
+            return height;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets the number of elements. While other threads are changing the tree
+     * this is only an estimate.
+     */
+    @Override
+    public int size() {
+        return count.intValue();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head.right == null;
+    }
+
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            head.right = null;
+            count.reset();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean contains(E entry) throws NullPointerException {
+        return find(entry) != null;
+    }
+
+    @Override
+    public BSTreeNode<E> search(E entry) throws NullPointerException {
+        Node<E> node = find(entry);
+        return node == null ? null : new BSTreeNode<E>(node.element);
+    }
+
+    /**
+     * Finds the node holding an element, first without locking and then, if a
+     * removal got in the way, again under the read lock
+     * @param entry the element to find
+     * @return the node holding the element, or null if it is not in the tree
+     * @throws NullPointerException if the element being passed in is null
+     */
+    private Node<E> find(E entry) {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+
+        long stamp = lock.tryOptimisticRead(); // 0 while a removal holds the write lock
+        if (stamp != 0L) {
+            Node<E> node = descend(entry, stamp);
+            if (lock.validate(stamp)) {
+                return node;
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return descend(entry, 0L);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Walks down from the root towards an element. An optimistic walk stops as
+     * soon as its stamp is no longer valid, since a removal may be relinking
+     * the nodes ahead of it, and the caller must then retry.
+     * @param entry the element to find
+     * @param stamp the optimistic stamp to check at each step, or 0 when the
+     *            read lock is held
+     * @return the node holding the element, or null if it was not reached
+     */
+    private Node<E> descend(E entry, long stamp) {
+        Node<E> node = head.right;
+        while (node != null && (stamp == 0L || lock.validate(stamp))) {
+            int comparison = entry.compareTo(node.element);
+            if (comparison == 0) {
+                return node;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean add(E newEntry) throws NullPointerException {
+        if (newEntry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        Node<E> node = new Node<E>(newEntry);
+        return insert(newEntry, node, null) == node;
+    }
+
+    @Override
+    public E getOrAdd(E newEntry) throws NullPointerException {
+        if (newEntry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        return insert(newEntry, null, () -> newEntry).element;
+    }
+
+    /**
+     * Retrieves the element equal to the key, creating and adding one if none
+     * is stored. The factory runs while removals are held off, so it should be
+     * quick. If another thread adds an equal element while the factory runs,
+     * that element is returned and the one created here is discarded.
+     */
+    @Override
+    public E computeIfAbsent(Comparable<? super E> key, Supplier<? extends E> factory)
+            throws NullPointerException {
+        if (key == null || factory == null) {
+            throw new NullPointerException("Key and factory cannot be null");
+        }
+        return insert(key, null, factory).element;
+    }
+
+    /**
+     * Private helper method that finds the node for a key or links a new leaf
+     * for it. Insertions hold the read lock, so no node is removed while they
+     * walk, and a leaf is linked by a compare-and-set on the empty child link
+     * that was found. If the compare-and-set fails, another thread has just
+     * linked a node in that place, and the walk carries on from there.
+     * @param key the key to search for
+     * @param created the node to link if the key is not found, or null to
+     *            create one from the factory
+     * @param factory creates the element to add when created is null
+     * @return the node already holding the key, or the node that was linked
+     * @throws NullPointerException if the factory creates a null element
+     */
+    private Node<E> insert(Comparable<? super E> key, Node<E> created, Supplier<? extends E> factory) {
+        long stamp = lock.readLock();
+        try {
+            Node<E> parent = head;
+            boolean left = false; // The root is the right child of the sentinel
+            while (true) {
+                Node<E> node = left ? parent.left : parent.right;
+                if (node == null) {
+                    if (created == null) {
+                        created = new Node<E>(create(factory));
+                    }
+                    if ((left ? LEFT : RIGHT).compareAndSet(parent, null, created)) {
+                        count.increment();
+                        return created;
+                    }
+                    continue; // Lost the race, compare against the node linked here instead
+                }
+
+                int comparison = key.compareTo(node.element);
+                if (comparison == 0) {
+                    return node;
+                }
+                parent = node;
+                left = comparison < 0;
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Private helper method that produces the entry to insert
+     * @param factory creates the entry
+     * @return the entry to insert
+     * @throws NullPointerException if the factory creates a null entry
+     */
+    private E create(Supplier<? extends E> factory) {
+        E created = factory.get();
+        if (created == null) {
+            throw new NullPointerException("Factory cannot create a null entry");
+        }
+        return created;
+    }
+
+    @Override
+    public BSTreeNode<E> removeMin() {
+        long stamp = lock.writeLock();
+        try {
+            Node<E> parent = head;
+            Node<E> minNode = head.right;
+            if (minNode == null) {
+                return null; // Tree is empty
+            }
+            while (minNode.left != null) {
+                parent = minNode;
+                minNode = minNode.left;
+            }
+            replace(parent, minNode, minNode.right);
+            count.decrement();
+            return new BSTreeNode<E>(minNode.element);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public BSTreeNode<E> removeMax() {
+        long stamp = lock.writeLock();
+        try {
+            Node<E> parent = head;
+            Node<E> maxNode = head.right;
+            if (maxNode == null) {
+                return null; // Tree is empty
+            }
+            while (maxNode.right != null) {
+                parent = maxNode;
+                maxNode = maxNode.right;
+            }
+            replace(parent, maxNode, maxNode.left);
+            count.decrement();
+            return new BSTreeNode<E>(maxNode.element);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public BSTreeNode<E> remove(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        long stamp = lock.writeLock();
+        try {
+            Node<E> removed = unlink(entry);
+            return removed == null ? null : new BSTreeNode<E>(removed.element);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a sorted batch of elements one at a time under a single hold of
+     * the write lock
+     * @param entries iterator over the elements to remove in ascending order
+     * @return the number of elements removed from the tree
+     * @throws NullPointerException if the iterator or any element is null
+     * @throws IllegalArgumentException if the elements are not in ascending order
+     */
+    @Override
+    public int removeAll(Iterator<E> entries) throws NullPointerException, IllegalArgumentException {
+        ArrayList<E> batch = BSTree.sortedBatch(entries);
+        int removed = 0;
+        long stamp = lock.writeLock();
+        try {
+            for (E entry : batch) {
+                if (unlink(entry) != null) {
+                    removed++;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes an element by splicing it out of the tree. A node with two
+     * children is replaced by its in-order successor, which is relinked in its
+     * place rather than having its element copied, since elements are final.
+     * Must be called with the write lock held.
+     * @param entry the element to remove
+     * @return the removed node, or null if the element is not in the tree
+     */
+    private Node<E> unlink(E entry) {
+        Node<E> parent = head;
+        Node<E> node = head.right;
+        while (node != null) {
+            int comparison = entry.compareTo(node.element);
+            if (comparison == 0) {
+                break;
+            }
+            parent = node;
+            node = comparison < 0 ? node.left : node.right;
+        }
+        if (node == null) {
+            return null; // Entry not found
+        }
+
+        if (node.left == null) {
+            replace(parent, node, node.right);
+        } else if (node.right == null) {
+            replace(parent, node, node.left);
+        } else {
+            Node<E> successorParent = node;
+            Node<E> successor = node.right;
+            while (successor.left != null) {
+                successorParent = successor;
+                successor = successor.left;
+            }
+            if (successorParent != node) {
+                successorParent.left = successor.right;
+                successor.right = node.right;
+            }
+            successor.left = node.left;
+            replace(parent, node, successor);
+        }
+        count.decrement();
+        return node;
+    }
+
+    /**
+     * Replaces the link from a parent to one of its children
+     * @param parent the parent, or the sentinel for the root
+     * @param child the child currently linked
+     * @param replacement the subtree to link in its place, may be null
+     */
+    private void replace(Node<E> parent, Node<E> child, Node<E> replacement) {
+        if (parent.left == child) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
+        }
+    }
+
+    @Override
+    public Iterator<E> inorderIterator() {
+        return snapshot(root -> {
+            ArrayList<E> elements = new ArrayList<E>();
+            ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+            Node<E> node = root;
+            while (node != null || !stack.isEmpty()) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+                node = stack.pop();
+                elements.add(node.element);
+                node = node.right;
+            }
+            return elements;
+        });
+    }
+
+    @Override
+    public Iterator<E> preorderIterator() {
+        return snapshot(root -> rootFirst(root, false));
+    }
+
+    /**
+     * Visits each node before its children, so reversing a right-first walk
+     * gives the post-order
+     */
+    @Override
+    public Iterator<E> postorderIterator() {
+        return snapshot(root -> {
+            ArrayList<E> elements = rootFirst(root, true);
+            Collections.reverse(elements);
+            return elements;
+        });
+    }
+
+    @Override
+    public Iterator<E> levelorderIterator() {
+        return levelorderIterator(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Iterator<E> levelorderIterator(int maxDepth) throws IllegalArgumentException {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Depth cannot be negative: " + maxDepth);
+        }
+        return snapshot(root -> {
+            ArrayList<E> elements = new ArrayList<E>();
+            ArrayDeque<Node<E>> level = new ArrayDeque<Node<E>>();
+            if (root != null && maxDepth > 0) {
+                level.add(root);
+            }
+            for (int depth = 1; !level.isEmpty(); depth++) {
+                for (int remaining = level.size(); remaining > 0; remaining--) {
+                    Node<E> node = level.poll();
+                    elements.add(node.element);
+                    Node<E> left = node.left;
+                    Node<E> right = node.right;
+                    if (depth < maxDepth && left != null) {
+                        level.add(left);
+                    }
+                    if (depth < maxDepth && right != null) {
+                        level.add(right);
+                    }
+                }
+            }
+            return elements;
+        });
+    }
+
+    /**
+     * Collects the elements of a subtree with each node before its children
+     * @param root the root of the subtree, may be null
+     * @param rightFirst true to visit the right child before the left
+     * @return the elements in the order visited
+     */
+    private ArrayList<E> rootFirst(Node<E> root, boolean rightFirst) {
+        ArrayList<E> elements = new ArrayList<E>();
+        ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            Node<E> node = stack.pop();
+            elements.add(node.element);
+            Node<E> first = rightFirst ? node.right : node.left;
+            Node<E> second = rightFirst ? node.left : node.right;
+            if (second != null) {
+                stack.push(second);
+            }
+            if (first != null) {
+                stack.push(first);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Takes a snapshot of the elements under the read lock. Removals wait for
+     * the snapshot, while elements added during it may or may not be included.
+     * @param traversal collects the elements from the root in the order wanted
+     * @return an iterator over the snapshot
+     */
+    private Iterator<E> snapshot(Function<Node<E>, ArrayList<E>> traversal) {
+        long stamp = lock.readLock();
+        try {
+            return new SnapshotIterator<E>(traversal.apply(head.right));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Serialization
+
+    /**
+     * Saves the tree as a size header followed by a snapshot of its elements
+     * in order
+     * @param out the stream to write the tree to
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        ArrayList<E> elements = ((SnapshotIterator<E>) inorderIterator()).elements;
+        out.writeInt(elements.size());
+        for (E element : elements) {
+            out.writeObject(element);
+        }
+    }
+
+    /**
+     * Restores a tree written by writeObject, rebuilding it perfectly balanced
+     * in O(n)
+     * @param in the stream to read the tree from
+     * @throws IOException if the stream cannot be read or holds an invalid tree
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int size = in.readInt();
+        if (size < 0) {
+            throw new InvalidObjectException("Negative tree size: " + size);
+        }
+
+        Object[] elements = new Object[Math.min(size, 1024)]; // Grows as elements arrive rather than trusting size
+        for (int i = 0; i < size; i++) {
+            elements = BSTree.appendAscending(elements, i, (E) in.readObject());
+        }
+        init();
+        head.right = buildBalanced(elements, 0, size);
+        count.add(size);
+    }
+
+    /**
+     * Private recursive helper method that links a sorted range of elements into
+     * a balanced subtree. The recursion depth is O(log n).
+     * @param elements the elements in ascending order
+     * @param from the first index of the range
+     * @param to one past the last index of the range
+     * @return the root of the new subtree, or null if the range is empty
+     */
+    @SuppressWarnings("unchecked")
+    private Node<E> buildBalanced(Object[] elements, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+
+        int middle = (from + to - 1) >>> 1;
+        Node<E> node = new Node<E>((E) elements[middle]);
+        node.left = buildBalanced(elements, from, middle);
+        node.right = buildBalanced(elements, middle + 1, to);
+        return node;
+    }
+
+    /**
+     * Tree node with an immutable element and child links that other threads
+     * can read without locking
+     */
+    private static final class Node<E> {
+        final E element;
+        volatile Node<E> left;   // Linked by compare-and-set, see LEFT
+        volatile Node<E> right;  // Linked by compare-and-set, see RIGHT
+
+        Node(E element) {
+            this.element = element;
+        }
+    }
+
+    /**
+     * Iterator over a list of elements taken from the tree. It is unaffected
+     * by later changes to the tree and never throws
+     * ConcurrentModificationException.
+     */
+    private static final class SnapshotIterator<E> implements Iterator<E> {
+        private final ArrayList<E> elements;
+        private int next;
+
+        public SnapshotIterator(ArrayList<E> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < elements.size();
+        }
+
+        @Override
+        public E next() throws NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            return elements.get(next++);
+        }
+    }
+}
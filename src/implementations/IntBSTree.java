@@ -0,0 +1,843 @@
+package implementations;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * IntBSTree is a self-balancing (AVL) Binary Search Tree of int keys. It offers
+ * the operations of the BSTreeADT for primitive keys, so numeric IDs such as
+ * file IDs or line numbers are stored, compared and iterated without boxing.
+ * Like ArrayBSTree, the nodes live in a pool of parallel arrays: a node is an
+ * int index, children are stored as indices, and removed slots are reused
+ * through a free list, so adding a key allocates nothing once the arrays are
+ * large enough.
+ *
+ * Since a key cannot be null, getRoot, removeMin and removeMax throw
+ * NoSuchElementException on an empty tree rather than returning null, and
+ * removeAll takes a primitive iterator over the keys rather than an Iterator
+ * of elements. Like the other trees, its iterators are fail-fast.
+ */
+public class IntBSTree implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int NIL = -1;                 // Index used for a missing child
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Attributes - slot i of each array describes node i
+    private transient int[] keys;          // Key stored in each node
+    private transient int[] left;          // Left child index, or the next free slot for a free node
+    private transient int[] right;         // Right child index
+    private transient byte[] heights;      // Height of the subtree rooted at each node
+    private transient int root;
+    private transient int size;
+    private transient int used;            // Number of slots ever handed out
+    private transient int freeHead;        // First slot of the free list
+    private transient int[] path;          // Reusable stack of the nodes visited by the last descent
+    private transient int modCount;        // Number of structural changes, checked by iterators to fail fast
+
+    // Constructors
+    public IntBSTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty tree with room for a number of keys before its arrays
+     * need to grow
+     * @param initialCapacity the number of keys to allocate room for
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public IntBSTree(int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        allocate(Math.max(initialCapacity, 1));
+    }
+
+    /**
+     * Gets the key at the root of the tree
+     * @return the key at the root
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public int getRoot() throws NoSuchElementException {
+        if (root == NIL) {
+            throw new NoSuchElementException("Tree is empty - no root node");
+        }
+        return keys[root];
+    }
+
+    /**
+     * Gets the number of levels in the tree
+     * @return the height of the tree, 0 for an empty tree
+     */
+    public int getHeight() {
+        return height(root);
+    }
+
+    /**
+     * Gets the number of keys in the tree
+     * @return the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the tree holds no keys
+     * @return true if the tree is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return root == NIL;
+    }
+
+    /**
+     * Removes every key from the tree
+     */
+    public void clear() {
+        allocate(DEFAULT_CAPACITY);
+        modCount++;
+    }
+
+    /**
+     * Checks whether a key is in the tree
+     * @param key the key to search for
+     * @return true if the key is in the tree, false otherwise
+     */
+    public boolean contains(int key) {
+        int node = root;
+        while (node != NIL) {
+            if (key < keys[node]) {
+                node = left[node];
+            } else if (key > keys[node]) {
+                node = right[node];
+            } else {
+                return true; // Found the key
+            }
+        }
+        return false; // Key not found
+    }
+
+    /**
+     * Adds a key to the tree, rebalancing the path above it
+     * @param key the key to add
+     * @return true if the key was added, false if it was already in the tree
+     */
+    public boolean add(int key) {
+        if (root == NIL) {
+            root = newNode(key);
+            size++;
+            modCount++;
+            return true;
+        }
+
+        // Walk down to the insertion point, remembering the path for rebalancing
+        int[] path = pathBuffer();
+        int depth = 0;
+        int node = root;
+        while (true) {
+            if (key == keys[node]) {
+                return false; // Already in the tree - not added
+            }
+            path[depth++] = node;
+
+            boolean goLeft = key < keys[node];
+            int next = goLeft ? left[node] : right[node];
+            if (next == NIL) {
+                int inserted = newNode(key); // May grow the arrays
+                if (goLeft) {
+                    left[node] = inserted;
+                } else {
+                    right[node] = inserted;
+                }
+                break;
+            }
+            node = next;
+        }
+        size++;
+        modCount++;
+
+        retrace(path, depth);
+        return true;
+    }
+
+    /**
+     * Removes a key, rebalancing the path above it. A node with two children
+     * takes over the key of its in-order successor, whose slot is then spliced
+     * out of the right subtree instead.
+     * @param key the key to remove
+     * @return true if the key was removed, false if it was not in the tree
+     */
+    public boolean remove(int key) {
+        // Walk down to the node, remembering the path for rebalancing
+        int[] path = pathBuffer();
+        int depth = 0;
+        int node = root;
+        while (node != NIL && key != keys[node]) {
+            path[depth++] = node;
+            node = key < keys[node] ? left[node] : right[node];
+        }
+        if (node == NIL) {
+            return false; // Key not found
+        }
+
+        int target = node;
+        if (left[node] != NIL && right[node] != NIL) {
+            // Move the successor's key up and splice out the successor's slot
+            path[depth++] = node;
+            target = right[node];
+            while (left[target] != NIL) {
+                path[depth++] = target;
+                target = left[target];
+            }
+            keys[node] = keys[target];
+        }
+        splice(path, depth, target);
+        return true;
+    }
+
+    /**
+     * Removes the smallest key in the tree
+     * @return the removed key
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public int removeMin() throws NoSuchElementException {
+        return removeExtreme(true);
+    }
+
+    /**
+     * Removes the largest key in the tree
+     * @return the removed key
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public int removeMax() throws NoSuchElementException {
+        return removeExtreme(false);
+    }
+
+    /**
+     * Private helper method that removes the smallest or largest key
+     * @param min true to remove the smallest key, false for the largest
+     * @return the removed key
+     * @throws NoSuchElementException if the tree is empty
+     */
+    private int removeExtreme(boolean min) throws NoSuchElementException {
+        if (root == NIL) {
+            throw new NoSuchElementException("Tree is empty");
+        }
+
+        // Walk the spine, remembering the path for rebalancing
+        int[] path = pathBuffer();
+        int depth = 0;
+        int node = root;
+        int next = min ? left[node] : right[node];
+        while (next != NIL) {
+            path[depth++] = node;
+            node = next;
+            next = min ? left[node] : right[node];
+        }
+
+        int removed = keys[node];
+        splice(path, depth, node);
+        return removed;
+    }
+
+    /**
+     * Removes a sorted batch of keys. A small batch is removed one key at a
+     * time. A batch large enough that this would cost more than a pass over the
+     * tree is instead merged against the in-order keys in a single pass, and the
+     * survivors are rebuilt into a perfectly balanced tree in O(n).
+     * @param entries iterator over the keys to remove in ascending order
+     * @return the number of keys removed from the tree
+     * @throws NullPointerException if the iterator is null
+     * @throws IllegalArgumentException if the keys are not in ascending order
+     */
+    public int removeAll(PrimitiveIterator.OfInt entries) throws NullPointerException, IllegalArgumentException {
+        int[] batch = sortedBatch(entries);
+        int removed = 0;
+
+        if ((long) batch.length * height(root) < size) {
+            for (int key : batch) {
+                if (remove(key)) {
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        // Merge the batch against the keys in order, keeping those not in the batch
+        int[] kept = new int[size];
+        int count = 0;
+        int next = 0;
+        PrimitiveIterator.OfInt it = inorderIterator();
+        while (it.hasNext()) {
+            int key = it.nextInt();
+            while (next < batch.length && batch[next] < key) {
+                next++;
+            }
+            if (next < batch.length && batch[next] == key) {
+                removed++;
+            } else {
+                kept[count++] = key;
+            }
+        }
+
+        if (removed > 0) {
+            allocate(Math.max(count, 1));
+            System.arraycopy(kept, 0, keys, 0, count);
+            used = count;
+            size = count;
+            root = buildBalanced(0, count);
+            modCount++;
+        }
+        return removed;
+    }
+
+    /**
+     * Collects a batch of keys, checking that they are in ascending order and
+     * dropping repeated keys, so a batch can be validated before the tree is
+     * changed
+     * @param entries iterator over the keys in ascending order
+     * @return the distinct keys in ascending order
+     * @throws NullPointerException if the iterator is null
+     * @throws IllegalArgumentException if the keys are not in ascending order
+     */
+    private static int[] sortedBatch(PrimitiveIterator.OfInt entries)
+            throws NullPointerException, IllegalArgumentException {
+        if (entries == null) {
+            throw new NullPointerException("Iterator cannot be null");
+        }
+
+        int[] batch = new int[16];
+        int count = 0;
+        while (entries.hasNext()) {
+            int key = entries.nextInt();
+            if (count > 0) {
+                if (key < batch[count - 1]) {
+                    throw new IllegalArgumentException("Keys are not in ascending order: " + key);
+                }
+                if (key == batch[count - 1]) {
+                    continue; // Repeated key
+                }
+            }
+            if (count == batch.length) {
+                batch = Arrays.copyOf(batch, count + (count >> 1));
+            }
+            batch[count++] = key;
+        }
+        return Arrays.copyOf(batch, count);
+    }
+
+    /**
+     * Private helper method that unlinks a node with at most one child by
+     * promoting that child, frees its slot and rebalances the path above it
+     * @param path the nodes from the root down to the node's parent
+     * @param depth the number of nodes in the path
+     * @param node the node to unlink
+     */
+    private void splice(int[] path, int depth, int node) {
+        int child = left[node] != NIL ? left[node] : right[node];
+        if (depth == 0) {
+            root = child;
+        } else if (left[path[depth - 1]] == node) {
+            left[path[depth - 1]] = child;
+        } else {
+            right[path[depth - 1]] = child;
+        }
+        size--;
+        modCount++;
+
+        freeNode(node);
+        retrace(path, depth);
+    }
+
+    /**
+     * Generates an in-order iteration over the keys of the tree, in ascending order
+     * @return an iterator over the keys in ascending order
+     */
+    public PrimitiveIterator.OfInt inorderIterator() {
+        return new InorderIterator();
+    }
+
+    /**
+     * Generates a pre-order iteration over the keys of the tree, root key first
+     * @return an iterator over the keys in root, left, right order
+     */
+    public PrimitiveIterator.OfInt preorderIterator() {
+        return new PreorderIterator();
+    }
+
+    /**
+     * Generates a post-order iteration over the keys of the tree, root key last
+     * @return an iterator over the keys in left, right, root order
+     */
+    public PrimitiveIterator.OfInt postorderIterator() {
+        return new PostorderIterator();
+    }
+
+    /**
+     * Generates a level-order (breadth-first) iteration over the keys of the
+     * tree, level by level from the root down
+     * @return an iterator over the keys in level order
+     */
+    public PrimitiveIterator.OfInt levelorderIterator() {
+        return new LevelorderIterator(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Generates a level-order iteration over the top levels of the tree only;
+     * nodes below the last level are never visited
+     * @param maxDepth the number of levels to return, where 1 returns only the root
+     * @return an iterator over the keys of the top levels in level order
+     * @throws IllegalArgumentException if maxDepth is negative
+     */
+    public PrimitiveIterator.OfInt levelorderIterator(int maxDepth) throws IllegalArgumentException {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Depth cannot be negative: " + maxDepth);
+        }
+        return new LevelorderIterator(maxDepth);
+    }
+
+    // Helper methods for the node pool
+
+    /**
+     * Replaces the node pool with empty arrays of a given capacity
+     * @param capacity the number of slots to allocate
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        heights = new byte[capacity];
+        root = NIL;
+        size = 0;
+        used = 0;
+        freeHead = NIL;
+    }
+
+    /**
+     * Takes a slot from the free list, or a fresh one from the end of the arrays,
+     * and initializes it as a leaf
+     * @param key the key to store in the node
+     * @return the index of the new node
+     */
+    private int newNode(int key) {
+        int node;
+        if (freeHead != NIL) {
+            node = freeHead;
+            freeHead = left[node];
+        } else {
+            if (used == keys.length) {
+                int capacity = keys.length + (keys.length >> 1) + 1;
+                keys = Arrays.copyOf(keys, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                heights = Arrays.copyOf(heights, capacity);
+            }
+            node = used++;
+        }
+        keys[node] = key;
+        left[node] = NIL;
+        right[node] = NIL;
+        heights[node] = 1;
+        return node;
+    }
+
+    /**
+     * Returns a slot to the free list
+     * @param node the index of the node to free
+     */
+    private void freeNode(int node) {
+        right[node] = NIL;
+        heights[node] = 0;
+        left[node] = freeHead;
+        freeHead = node;
+    }
+
+    // Helper methods for self-balancing
+
+    /**
+     * Gets the path buffer, making sure it can hold a descent from the root to
+     * one past the deepest node
+     * @return the reusable path buffer
+     */
+    private int[] pathBuffer() {
+        int needed = height(root) + 1;
+        if (path == null || path.length < needed) {
+            path = new int[Math.max(needed, 32)];
+        }
+        return path;
+    }
+
+    /**
+     * Walks back up a descent path after an insertion or removal, rebalancing
+     * each ancestor and relinking any subtree that was rotated. Stops as soon as
+     * a subtree keeps its previous height, since nothing above it can change.
+     * @param path the nodes visited on the way down, root first
+     * @param depth the number of nodes in the path
+     */
+    private void retrace(int[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            int node = path[i];
+            int oldHeight = heights[node];
+            int subtree = rebalance(node);
+
+            if (subtree != node) {
+                if (i == 0) {
+                    root = subtree;
+                } else if (left[path[i - 1]] == node) {
+                    left[path[i - 1]] = subtree;
+                } else {
+                    right[path[i - 1]] = subtree;
+                }
+            }
+            if (heights[subtree] == oldHeight) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the recorded height of a subtree
+     * @param node the root of the subtree, may be NIL
+     * @return the height of the subtree, 0 for an empty subtree
+     */
+    private int height(int node) {
+        return node == NIL ? 0 : heights[node];
+    }
+
+    /**
+     * Recomputes the recorded height of a node from its children
+     * @param node the node to update
+     */
+    private void updateHeight(int node) {
+        heights[node] = (byte) (1 + Math.max(height(left[node]), height(right[node])));
+    }
+
+    /**
+     * Restores the AVL property at a node whose children are already balanced
+     * @param node the root of the subtree to rebalance
+     * @return the new root of the subtree
+     */
+    private int rebalance(int node) {
+        updateHeight(node);
+        int balance = height(left[node]) - height(right[node]);
+
+        if (balance > 1) {
+            // Left heavy - a left-right case needs a rotation of the left child first
+            if (height(left[left[node]]) < height(right[left[node]])) {
+                left[node] = rotateLeft(left[node]);
+            }
+            return rotateRight(node);
+        } else if (balance < -1) {
+            // Right heavy - a right-left case needs a rotation of the right child first
+            if (height(right[right[node]]) < height(left[right[node]])) {
+                right[node] = rotateRight(right[node]);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Rotates a subtree to the right, lifting its left child
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    /**
+     * Rotates a subtree to the left, lifting its right child
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    // Serialization
+
+    /**
+     * Saves the tree as a size header followed by its keys in order, so unused
+     * slots and the free list are not written
+     * @param out the stream to write the tree to
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        PrimitiveIterator.OfInt it = inorderIterator();
+        while (it.hasNext()) {
+            out.writeInt(it.nextInt());
+        }
+    }
+
+    /**
+     * Restores a tree written by writeObject into compact arrays, rebuilding it
+     * perfectly balanced in O(n)
+     * @param in the stream to read the tree from
+     * @throws IOException if the stream cannot be read or holds an invalid tree
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Negative tree size: " + count);
+        }
+
+        allocate(Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            keys[i] = in.readInt();
+            if (i > 0 && keys[i] <= keys[i - 1]) {
+                throw new InvalidObjectException("Tree keys are not in strictly ascending order");
+            }
+        }
+        used = count;
+        size = count;
+        root = buildBalanced(0, count);
+    }
+
+    /**
+     * Private recursive helper method that links the slots of a sorted range into
+     * a balanced subtree. The recursion depth is O(log n).
+     * @param from the first slot of the range
+     * @param to one past the last slot of the range
+     * @return the root of the new subtree, or NIL if the range is empty
+     */
+    private int buildBalanced(int from, int to) {
+        if (from == to) {
+            return NIL;
+        }
+
+        int middle = (from + to - 1) >>> 1;
+        left[middle] = buildBalanced(from, middle);
+        right[middle] = buildBalanced(middle + 1, to);
+        updateHeight(middle);
+        return middle;
+    }
+
+    /**
+     * Checks that the tree has not been structurally changed since an iteration
+     * started
+     * @param expectedModCount the modification count when the iteration started
+     * @throws ConcurrentModificationException if the tree has been changed
+     */
+    private void checkForComodification(int expectedModCount) throws ConcurrentModificationException {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("Tree was modified during iteration");
+        }
+    }
+
+    // Inner Iterator Implementations
+    // Each iterator walks the tree lazily with an int stack of node indices and
+    // returns keys through nextInt, so iterating does not box. The iterators are
+    // fail-fast: once the tree is added to or removed from, nextInt throws a
+    // ConcurrentModificationException instead of walking slots that may have
+    // been rebalanced, freed or reused.
+
+    /**
+     * Iterator over the keys in ascending (left, root, right) order
+     */
+    private class InorderIterator implements PrimitiveIterator.OfInt {
+        private int[] stack = new int[height(root)];
+        private int top = 0;
+        private final int expectedModCount = modCount;
+
+        public InorderIterator() {
+            pushLeftSpine(root);
+        }
+
+        /**
+         * Pushes a node and all of its left descendants onto the stack
+         * @param node the top of the spine to push
+         */
+        private void pushLeftSpine(int node) {
+            while (node != NIL) {
+                stack[top++] = node;
+                node = left[node];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public int nextInt() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            int node = stack[--top];               // Root
+            pushLeftSpine(right[node]);            // Right, after its left spine
+            return keys[node];
+        }
+    }
+
+    /**
+     * Iterator over the keys in root, left, right order
+     */
+    private class PreorderIterator implements PrimitiveIterator.OfInt {
+        private int[] stack = new int[height(root) + 1];
+        private int top = 0;
+        private final int expectedModCount = modCount;
+
+        public PreorderIterator() {
+            if (root != NIL) {
+                stack[top++] = root;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public int nextInt() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            int node = stack[--top];               // Root
+            if (right[node] != NIL) {
+                stack[top++] = right[node];        // Right, visited after left
+            }
+            if (left[node] != NIL) {
+                stack[top++] = left[node];         // Left
+            }
+            return keys[node];
+        }
+    }
+
+    /**
+     * Iterator over the keys in left, right, root order
+     */
+    private class PostorderIterator implements PrimitiveIterator.OfInt {
+        private int[] stack = new int[height(root)];
+        private int top = 0;
+        private final int expectedModCount = modCount;
+
+        public PostorderIterator() {
+            pushToFirstLeaf(root);
+        }
+
+        /**
+         * Pushes the path from a node down to the first leaf visited in post-order,
+         * preferring left children over right ones
+         * @param node the top of the path to push
+         */
+        private void pushToFirstLeaf(int node) {
+            while (node != NIL) {
+                stack[top++] = node;
+                node = left[node] != NIL ? left[node] : right[node];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public int nextInt() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            int node = stack[--top];
+            // Coming up from a left child means the parent's right subtree is next
+            if (top > 0 && left[stack[top - 1]] == node) {
+                pushToFirstLeaf(right[stack[top - 1]]);
+            }
+            return keys[node];
+        }
+    }
+
+    /**
+     * Iterator over the keys level by level, down to a maximum depth. Node
+     * indices are queued in a growable ring buffer, and the children of the last
+     * level are never queued.
+     */
+    private class LevelorderIterator implements PrimitiveIterator.OfInt {
+        private int[] queue = new int[16];     // Ring buffer, its length is always a power of two
+        private int head = 0;
+        private int count = 0;
+        private final int maxDepth;
+        private int depth = 1;                 // Level of the node at the front of the queue
+        private int levelRemaining;            // Nodes of that level still in the queue
+        private final int expectedModCount = modCount;
+
+        public LevelorderIterator(int maxDepth) {
+            this.maxDepth = maxDepth;
+            if (root != NIL && maxDepth > 0) {
+                enqueue(root);
+                levelRemaining = 1;
+            }
+        }
+
+        /**
+         * Adds a node to the back of the queue, doubling the buffer when it is full
+         * @param node the index of the node to add
+         */
+        private void enqueue(int node) {
+            if (count == queue.length) {
+                int[] grown = new int[queue.length * 2];
+                for (int i = 0; i < count; i++) {
+                    grown[i] = queue[(head + i) & (queue.length - 1)];
+                }
+                queue = grown;
+                head = 0;
+            }
+            queue[(head + count++) & (queue.length - 1)] = node;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return count > 0;
+        }
+
+        @Override
+        public int nextInt() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            int node = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            count--;
+            if (depth < maxDepth) {
+                if (left[node] != NIL) {
+                    enqueue(left[node]);
+                }
+                if (right[node] != NIL) {
+                    enqueue(right[node]);
+                }
+            }
+            if (--levelRemaining == 0) {
+                depth++;                           // The queue now holds exactly the next level
+                levelRemaining = count;
+            }
+            return keys[node];
+        }
+    }
+}
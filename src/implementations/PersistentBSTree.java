@@ -0,0 +1,677 @@
+package implementations;
+
+import utilities.BSTreeADT;
+import utilities.Iterator;
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * PersistentBSTree is a self-balancing (AVL) Binary Search Tree built from
+ * immutable nodes. Changing the tree never modifies a node: an insertion or
+ * removal copies the nodes on the path it walked, rebalancing as it goes, and
+ * then publishes the new root. Every version of the tree therefore stays valid
+ * for as long as something refers to its root, and shares all of its other
+ * nodes with the versions before and after it.
+ *
+ * This makes snapshot() O(1), and lets queries and serialization work on a
+ * consistent frozen version while writers keep changing the tree. Reads never
+ * lock. Changes are serialized on the tree, and the root is published through
+ * a volatile field. Iterators walk the version that was current when they were
+ * created, so they are never affected by later changes.
+ *
+ * Only the shape of the tree is frozen. Elements are shared between versions,
+ * so elements that are changed in place, such as the occurrences of a Word,
+ * are seen changing in every version that holds them.
+ *
+ * @param <E> The type of elements stored in the tree
+ */
+public class PersistentBSTree<E extends Comparable<? super E>> implements BSTreeADT<E>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Attributes
+    private transient volatile Node<E> root;  // Saved as an ordered list of elements, see writeObject
+    private transient E found;                // Element found or added by the last insertion, see insert
+    private transient E removed;              // Element taken out by the last removal, see delete
+
+    // Constructors
+    public PersistentBSTree() {
+        this.root = null;
+    }
+
+    /**
+     * Creates a tree starting from an existing version
+     * @param root the root of the version, may be null
+     */
+    private PersistentBSTree(Node<E> root) {
+        this.root = root;
+    }
+
+    /**
+     * Takes a snapshot of the current version of the tree in O(1). The snapshot
+     * is an independent tree: later changes to this tree do not affect it, and
+     * changes made to the snapshot do not affect this tree.
+     * @return a tree holding the current elements
+     */
+    public PersistentBSTree<E> snapshot() {
+        return new PersistentBSTree<E>(root);
+    }
+
+    /**
+     * Gets a detached copy of the root node, since the nodes of the tree are
+     * immutable
+     */
+    @Override
+    public BSTreeNode<E> getRoot() throws NullPointerException {
+        Node<E> current = root;
+        if (current == null) {
+            throw new NullPointerException("Tree is empty - no root node");
+        }
+        return new BSTreeNode<E>(current.element);
+    }
+
+    @Override
+    public int getHeight() {
+        return height(root);
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public synchronized void clear() {
+        root = null;
+    }
+
+    @Override
+    public boolean contains(E entry) throws NullPointerException {
+        return find(entry) != null;
+    }
+
+    @Override
+    public BSTreeNode<E> search(E entry) throws NullPointerException {
+        Node<E> node = find(entry);
+        return node == null ? null : new BSTreeNode<E>(node.element);
+    }
+
+    /**
+     * Finds the node holding an element in the current version
+     * @param entry the element to find
+     * @return the node holding the element, or null if it is not in the tree
+     * @throws NullPointerException if the element being passed in is null
+     */
+    private Node<E> find(E entry) {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        Node<E> node = root;
+        while (node != null) {
+            int comparison = entry.compareTo(node.element);
+            if (comparison == 0) {
+                return node;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized boolean add(E newEntry) throws NullPointerException {
+        if (newEntry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        Node<E> oldRoot = root;
+        root = insert(oldRoot, newEntry, newEntry, null);
+        found = null;
+        return root != oldRoot;
+    }
+
+    @Override
+    public synchronized E getOrAdd(E newEntry) throws NullPointerException {
+        if (newEntry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        return publishInsert(newEntry, newEntry, null);
+    }
+
+    @Override
+    public synchronized E computeIfAbsent(Comparable<? super E> key, Supplier<? extends E> factory)
+            throws NullPointerException {
+        if (key == null || factory == null) {
+            throw new NullPointerException("Key and factory cannot be null");
+        }
+        return publishInsert(key, null, factory);
+    }
+
+    /**
+     * Private helper method that inserts a key and publishes the new version
+     * @param key the key to search for
+     * @param newEntry the entry to insert, or null to use the factory
+     * @param factory creates the entry when newEntry is null
+     * @return the element already stored in the tree, or the element added
+     */
+    private E publishInsert(Comparable<? super E> key, E newEntry, Supplier<? extends E> factory) {
+        root = insert(root, key, newEntry, factory);
+        E result = found;
+        found = null;
+        return result;
+    }
+
+    /**
+     * Private recursive helper method that returns a copy of a subtree with a
+     * key added. Only the nodes on the path to the key are copied, and an
+     * unchanged subtree is returned as it is. The element found or added is
+     * left in found.
+     * @param node the root of the subtree, may be null
+     * @param key the key to search for
+     * @param newEntry the entry to insert, or null to use the factory
+     * @param factory creates the entry when newEntry is null
+     * @return the root of the new version of the subtree
+     * @throws NullPointerException if the factory creates a null entry
+     */
+    private Node<E> insert(Node<E> node, Comparable<? super E> key, E newEntry,
+            Supplier<? extends E> factory) {
+        if (node == null) {
+            found = create(newEntry, factory);
+            return new Node<E>(found, null, null);
+        }
+
+        int comparison = key.compareTo(node.element);
+        if (comparison == 0) {
+            found = node.element;
+            return node;
+        }
+        if (comparison < 0) {
+            Node<E> left = insert(node.left, key, newEntry, factory);
+            return left == node.left ? node : balance(node.element, left, node.right);
+        }
+        Node<E> right = insert(node.right, key, newEntry, factory);
+        return right == node.right ? node : balance(node.element, node.left, right);
+    }
+
+    /**
+     * Private helper method that produces the entry to insert
+     * @param newEntry the entry to insert, or null to use the factory
+     * @param factory creates the entry when newEntry is null
+     * @return the entry to insert
+     * @throws NullPointerException if the factory creates a null entry
+     */
+    private E create(E newEntry, Supplier<? extends E> factory) {
+        if (newEntry != null) {
+            return newEntry;
+        }
+        E created = factory.get();
+        if (created == null) {
+            throw new NullPointerException("Factory cannot create a null entry");
+        }
+        return created;
+    }
+
+    @Override
+    public synchronized BSTreeNode<E> removeMin() {
+        Node<E> current = root;
+        if (current == null) {
+            return null; // Tree is empty
+        }
+        E element = min(current).element;
+        root = withoutMin(current);
+        return new BSTreeNode<E>(element);
+    }
+
+    @Override
+    public synchronized BSTreeNode<E> removeMax() {
+        Node<E> current = root;
+        if (current == null) {
+            return null; // Tree is empty
+        }
+        E element = max(current).element;
+        root = withoutMax(current);
+        return new BSTreeNode<E>(element);
+    }
+
+    @Override
+    public synchronized BSTreeNode<E> remove(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        root = delete(root, entry);
+        E element = removed;
+        removed = null;
+        return element == null ? null : new BSTreeNode<E>(element);
+    }
+
+    /**
+     * Removes a sorted batch of elements one at a time, publishing a new
+     * version after each removal
+     * @param entries iterator over the elements to remove in ascending order
+     * @return the number of elements removed from the tree
+     * @throws NullPointerException if the iterator or any element is null
+     * @throws IllegalArgumentException if the elements are not in ascending order
+     */
+    @Override
+    public synchronized int removeAll(Iterator<E> entries) throws NullPointerException, IllegalArgumentException {
+        int count = 0;
+        for (E entry : BSTree.sortedBatch(entries)) {
+            if (remove(entry) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Private recursive helper method that returns a copy of a subtree without
+     * an element. A node with two children is replaced by a copy holding its
+     * in-order successor. The removed element is left in removed.
+     * @param node the root of the subtree, may be null
+     * @param entry the element to remove
+     * @return the root of the new version of the subtree, or the subtree
+     *         itself if the element is not in it
+     */
+    private Node<E> delete(Node<E> node, E entry) {
+        if (node == null) {
+            return null; // Entry not found
+        }
+
+        int comparison = entry.compareTo(node.element);
+        if (comparison < 0) {
+            Node<E> left = delete(node.left, entry);
+            return left == node.left ? node : balance(node.element, left, node.right);
+        }
+        if (comparison > 0) {
+            Node<E> right = delete(node.right, entry);
+            return right == node.right ? node : balance(node.element, node.left, right);
+        }
+
+        removed = node.element;
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        return balance(min(node.right).element, node.left, withoutMin(node.right));
+    }
+
+    /**
+     * Returns a copy of a subtree without its smallest element
+     * @param node the root of the subtree, not null
+     * @return the root of the new version of the subtree
+     */
+    private Node<E> withoutMin(Node<E> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.element, withoutMin(node.left), node.right);
+    }
+
+    /**
+     * Returns a copy of a subtree without its largest element
+     * @param node the root of the subtree, not null
+     * @return the root of the new version of the subtree
+     */
+    private Node<E> withoutMax(Node<E> node) {
+        if (node.right == null) {
+            return node.left;
+        }
+        return balance(node.element, node.left, withoutMax(node.right));
+    }
+
+    /**
+     * Gets the node holding the smallest element of a subtree
+     * @param node the root of the subtree, not null
+     * @return the leftmost node
+     */
+    private Node<E> min(Node<E> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    /**
+     * Gets the node holding the largest element of a subtree
+     * @param node the root of the subtree, not null
+     * @return the rightmost node
+     */
+    private Node<E> max(Node<E> node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    // Helper methods for building balanced nodes
+
+    /**
+     * Creates a node from an element and two subtrees whose heights differ by
+     * at most two, rotating if needed so the result is AVL balanced. Rotations
+     * create new nodes rather than relinking existing ones.
+     * @param element the element of the node
+     * @param left the subtree of smaller elements, may be null
+     * @param right the subtree of larger elements, may be null
+     * @return the root of the balanced subtree
+     */
+    private Node<E> balance(E element, Node<E> left, Node<E> right) {
+        int balance = height(left) - height(right);
+
+        if (balance > 1) {
+            if (height(left.left) >= height(left.right)) {
+                // Left-left case - a single right rotation
+                return new Node<E>(left.element, left.left, new Node<E>(element, left.right, right));
+            }
+            // Left-right case - the left child's right child becomes the root
+            Node<E> pivot = left.right;
+            return new Node<E>(pivot.element, new Node<E>(left.element, left.left, pivot.left),
+                    new Node<E>(element, pivot.right, right));
+        } else if (balance < -1) {
+            if (height(right.right) >= height(right.left)) {
+                // Right-right case - a single left rotation
+                return new Node<E>(right.element, new Node<E>(element, left, right.left), right.right);
+            }
+            // Right-left case - the right child's left child becomes the root
+            Node<E> pivot = right.left;
+            return new Node<E>(pivot.element, new Node<E>(element, left, pivot.left),
+                    new Node<E>(right.element, pivot.right, right.right));
+        }
+        return new Node<E>(element, left, right);
+    }
+
+    /**
+     * Gets the recorded height of a subtree
+     * @param node the root of the subtree, may be null
+     * @return the height of the subtree, 0 for an empty subtree
+     */
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Gets the recorded size of a subtree
+     * @param node the root of the subtree, may be null
+     * @return the number of nodes in the subtree, 0 for an empty subtree
+     */
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    @Override
+    public Iterator<E> inorderIterator() {
+        return new InorderIterator(root);
+    }
+
+    @Override
+    public Iterator<E> preorderIterator() {
+        return new PreorderIterator(root);
+    }
+
+    @Override
+    public Iterator<E> postorderIterator() {
+        return new PostorderIterator(root);
+    }
+
+    @Override
+    public Iterator<E> levelorderIterator() {
+        return new LevelorderIterator(root, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Iterator<E> levelorderIterator(int maxDepth) throws IllegalArgumentException {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Depth cannot be negative: " + maxDepth);
+        }
+        return new LevelorderIterator(root, maxDepth);
+    }
+
+    // Serialization
+
+    /**
+     * Saves the current version of the tree as a size header followed by its
+     * elements in order. The version is frozen, so writers are not held up
+     * while it is written.
+     * @param out the stream to write the tree to
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        Node<E> version = root;
+        out.defaultWriteObject();
+        out.writeInt(size(version));
+        Iterator<E> it = new InorderIterator(version);
+        while (it.hasNext()) {
+            out.writeObject(it.next());
+        }
+    }
+
+    /**
+     * Restores a tree written by writeObject, rebuilding it perfectly balanced
+     * in O(n)
+     * @param in the stream to read the tree from
+     * @throws IOException if the stream cannot be read or holds an invalid tree
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Negative tree size: " + count);
+        }
+
+        Object[] elements = new Object[Math.min(count, 1024)]; // Grows as elements arrive rather than trusting count
+        for (int i = 0; i < count; i++) {
+            elements = BSTree.appendAscending(elements, i, (E) in.readObject());
+        }
+        root = buildBalanced(elements, 0, count);
+    }
+
+    /**
+     * Private recursive helper method that builds a balanced subtree from a
+     * sorted range of elements. The recursion depth is O(log n).
+     * @param elements the elements in ascending order
+     * @param from the first index of the range
+     * @param to one past the last index of the range
+     * @return the root of the new subtree, or null if the range is empty
+     */
+    @SuppressWarnings("unchecked")
+    private Node<E> buildBalanced(Object[] elements, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+
+        int middle = (from + to - 1) >>> 1;
+        Node<E> left = buildBalanced(elements, from, middle);
+        Node<E> right = buildBalanced(elements, middle + 1, to);
+        return new Node<E>((E) elements[middle], left, right);
+    }
+
+    /**
+     * Immutable tree node recording the height and size of its subtree
+     */
+    private static final class Node<E> {
+        final E element;
+        final Node<E> left;
+        final Node<E> right;
+        final int height;
+        final int size;
+
+        Node(E element, Node<E> left, Node<E> right) {
+            this.element = element;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(PersistentBSTree.height(left), PersistentBSTree.height(right));
+            this.size = 1 + PersistentBSTree.size(left) + PersistentBSTree.size(right);
+        }
+    }
+
+    // Inner Iterator Implementations
+    // Each iterator walks one version of the tree lazily with an explicit stack.
+    // The nodes of a version never change, so no checks for changes are needed.
+
+    /**
+     * Iterator over the elements in natural (left, root, right) order
+     */
+    private class InorderIterator implements Iterator<E> {
+        private ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+
+        public InorderIterator(Node<E> version) {
+            pushLeftSpine(version);
+        }
+
+        /**
+         * Pushes a node and all of its left descendants onto the stack
+         * @param node the node to start from, may be null
+         */
+        private void pushLeftSpine(Node<E> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() throws NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            Node<E> node = stack.pop();
+            pushLeftSpine(node.right);
+            return node.element;
+        }
+    }
+
+    /**
+     * Iterator over the elements with each node before its children
+     */
+    private class PreorderIterator implements Iterator<E> {
+        private ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+
+        public PreorderIterator(Node<E> version) {
+            if (version != null) {
+                stack.push(version);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() throws NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            Node<E> node = stack.pop();
+            if (node.right != null) {
+                stack.push(node.right);
+            }
+            if (node.left != null) {
+                stack.push(node.left);
+            }
+            return node.element;
+        }
+    }
+
+    /**
+     * Iterator over the elements with each node after its children
+     */
+    private class PostorderIterator implements Iterator<E> {
+        private ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+
+        public PostorderIterator(Node<E> version) {
+            pushLeftmostLeaf(version);
+        }
+
+        /**
+         * Pushes the path from a node down to the first node of its subtree in
+         * post-order, preferring left children
+         * @param node the node to start from, may be null
+         */
+        private void pushLeftmostLeaf(Node<E> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left != null ? node.left : node.right;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() throws NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            Node<E> node = stack.pop();
+            Node<E> parent = stack.peek();
+            if (parent != null && parent.left == node && parent.right != null) {
+                pushLeftmostLeaf(parent.right); // Finished the left subtree, visit the right next
+            }
+            return node.element;
+        }
+    }
+
+    /**
+     * Iterator over the elements level by level, stopping after a maximum depth
+     */
+    private class LevelorderIterator implements Iterator<E> {
+        private ArrayDeque<Node<E>> queue = new ArrayDeque<Node<E>>();
+        private final int maxDepth;
+        private int depth = 1;              // Depth of the nodes being returned
+        private int remainingInLevel;       // Nodes of the current depth still queued
+
+        public LevelorderIterator(Node<E> version, int maxDepth) {
+            this.maxDepth = maxDepth;
+            if (version != null && maxDepth > 0) {
+                queue.add(version);
+                remainingInLevel = 1;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public E next() throws NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            Node<E> node = queue.poll();
+            if (depth < maxDepth) {
+                if (node.left != null) {
+                    queue.add(node.left);
+                }
+                if (node.right != null) {
+                    queue.add(node.right);
+                }
+            }
+            if (--remainingInLevel == 0) {
+                depth++;
+                remainingInLevel = queue.size();
+            }
+            return node.element;
+        }
+    }
+}
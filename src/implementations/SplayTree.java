@@ -0,0 +1,663 @@
+package implementations;
+
+import utilities.BSTreeADT;
+import utilities.Iterator;
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * SplayTree is a self-adjusting Binary Search Tree. Every search, insertion and
+ * removal splays the node it reaches up to the root, so frequently used
+ * elements stay near the top. Word frequencies in natural text are heavily
+ * skewed, so most lookups of common words finish after only a few comparisons.
+ * Operations run in O(log n) amortized time.
+ *
+ * Splaying is done top-down in a single pass without recursion. Because even
+ * searches restructure the tree, the heights and sizes recorded in BSTreeNode
+ * are not maintained, and getHeight walks the tree. For the same reason a
+ * lookup that moves another node to the root invalidates any iterators, just
+ * as adding or removing does.
+ *
+ * @param <E> The type of elements stored in the tree
+ */
+public class SplayTree<E extends Comparable<? super E>> implements BSTreeADT<E>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Attributes
+    private transient BSTreeNode<E> root;  // Saved as an ordered list of elements, see writeObject
+    private transient int size;
+    private transient int lastComparison;  // Key compared with the root after the last splay
+    private transient int modCount;        // Number of splays and structural changes, checked by iterators to fail fast
+
+    // Constructors
+    public SplayTree() {
+        this.root = null;
+        this.size = 0;
+    }
+
+    @Override
+    public BSTreeNode<E> getRoot() throws NullPointerException {
+        if (root == null) {
+            throw new NullPointerException("Tree is empty - no root node");
+        }
+        return root;
+    }
+
+    /**
+     * Counts the levels breadth-first, since splaying does not keep node heights
+     */
+    @Override
+    public int getHeight() {
+        if (root == null) {
+            return 0;
+        }
+        ArrayDeque<BSTreeNode<E>> level = new ArrayDeque<BSTreeNode<E>>();
+        level.add(root);
+        int height = 0;
+        while (!level.isEmpty()) {
+            height++;
+            for (int remaining = level.size(); remaining > 0; remaining--) {
+                BSTreeNode<E> node = level.poll();
+                if (node.getLeft() != null) {
+                    level.add(node.getLeft());
+                }
+                if (node.getRight() != null) {
+                    level.add(node.getRight());
+                }
+            }
+        }
+        return height;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public boolean contains(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        return search(entry) != null;
+    }
+
+    /**
+     * Searches for an element and splays the last node reached to the root,
+     * whether or not the element is found
+     */
+    @Override
+    public BSTreeNode<E> search(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        if (root == null) {
+            return null;
+        }
+
+        root = splay(root, entry);
+        return lastComparison == 0 ? root : null;
+    }
+
+    @Override
+    public boolean add(E newEntry) throws NullPointerException {
+        if (newEntry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+
+        int oldSize = size;
+        insert(newEntry, newEntry, null);
+        return size != oldSize;
+    }
+
+    @Override
+    public E getOrAdd(E newEntry) throws NullPointerException {
+        if (newEntry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        return insert(newEntry, newEntry, null);
+    }
+
+    @Override
+    public E computeIfAbsent(Comparable<? super E> key, Supplier<? extends E> factory)
+            throws NullPointerException {
+        if (key == null || factory == null) {
+            throw new NullPointerException("Key and factory cannot be null");
+        }
+        return insert(key, null, factory);
+    }
+
+    /**
+     * Private helper method that splays the key's position to the root, then
+     * either returns the element found there or makes a new node the root with
+     * the old root's halves as its children
+     * @param key the key to search for
+     * @param newEntry the entry to insert if the key is not found, or null to
+     *                 create it with the factory instead
+     * @param factory creates the entry to insert when newEntry is null
+     * @return the element found in the tree, or the element inserted
+     */
+    private E insert(Comparable<? super E> key, E newEntry, Supplier<? extends E> factory) {
+        if (root == null) {
+            root = new BSTreeNode<E>(create(newEntry, factory));
+            size++;
+            modCount++;
+            return root.getData();
+        }
+
+        root = splay(root, key);
+        int comparison = lastComparison;
+        if (comparison == 0) {
+            return root.getData(); // Already in the tree - not added
+        }
+
+        BSTreeNode<E> node = new BSTreeNode<E>(create(newEntry, factory));
+        if (comparison < 0) {
+            node.setLeft(root.getLeft());
+            node.setRight(root);
+            root.setLeft(null);
+        } else {
+            node.setRight(root.getRight());
+            node.setLeft(root);
+            root.setRight(null);
+        }
+        root = node;
+        size++;
+        modCount++;
+        return node.getData();
+    }
+
+    /**
+     * Private helper method that produces the entry to insert
+     * @param newEntry the entry to insert, or null to use the factory
+     * @param factory creates the entry when newEntry is null
+     * @return the entry to insert
+     * @throws NullPointerException if the factory creates a null entry
+     */
+    private E create(E newEntry, Supplier<? extends E> factory) {
+        if (newEntry != null) {
+            return newEntry;
+        }
+        E created = factory.get();
+        if (created == null) {
+            throw new NullPointerException("Factory cannot create a null entry");
+        }
+        return created;
+    }
+
+    @Override
+    public BSTreeNode<E> removeMin() {
+        if (root == null) {
+            return null; // Tree is empty
+        }
+
+        // Splaying towards a key below every element brings the minimum to the root
+        root = splay(root, element -> -1);
+        BSTreeNode<E> minNode = root;
+        root = minNode.getRight();
+        minNode.setRight(null);
+        size--;
+        modCount++;
+        return minNode;
+    }
+
+    @Override
+    public BSTreeNode<E> removeMax() {
+        if (root == null) {
+            return null; // Tree is empty
+        }
+
+        // Splaying towards a key above every element brings the maximum to the root
+        root = splay(root, element -> 1);
+        BSTreeNode<E> maxNode = root;
+        root = maxNode.getLeft();
+        maxNode.setLeft(null);
+        size--;
+        modCount++;
+        return maxNode;
+    }
+
+    /**
+     * Removes an element by splaying it to the root, then joining its subtrees:
+     * splaying the largest element of the left subtree to its top leaves it with
+     * no right child, so the right subtree is hung there
+     * @param entry the element to remove
+     * @return the removed node, detached from the tree, or null if the element
+     *         is not in the tree
+     * @throws NullPointerException if the element being passed in is null
+     */
+    @Override
+    public BSTreeNode<E> remove(E entry) throws NullPointerException {
+        if (entry == null) {
+            throw new NullPointerException("Entry cannot be null");
+        }
+        if (root == null) {
+            return null;
+        }
+
+        root = splay(root, entry);
+        if (lastComparison != 0) {
+            return null; // Entry not found
+        }
+
+        BSTreeNode<E> removed = root;
+        if (removed.getLeft() == null) {
+            root = removed.getRight();
+        } else {
+            root = splay(removed.getLeft(), element -> 1);
+            root.setRight(removed.getRight());
+        }
+        removed.setLeft(null);
+        removed.setRight(null);
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Removes a sorted batch of elements one at a time. Consecutive elements of
+     * a sorted batch lie close together, so each splay starts near the last one.
+     * @param entries iterator over the elements to remove in ascending order
+     * @return the number of elements removed from the tree
+     * @throws NullPointerException if the iterator or any element is null
+     * @throws IllegalArgumentException if the elements are not in ascending order
+     */
+    @Override
+    public int removeAll(Iterator<E> entries) throws NullPointerException, IllegalArgumentException {
+        int removed = 0;
+        for (E entry : BSTree.sortedBatch(entries)) {
+            if (remove(entry) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Top-down splay: walks from the root towards a key, rotating zig-zig steps
+     * and splitting the nodes passed into a left tree of smaller elements and a
+     * right tree of larger ones, then reassembles them around the last node
+     * reached, which becomes the new root.
+     * Each node on the path is compared with the key only once, and the result
+     * for the new root is left in lastComparison. The tree only changes shape
+     * if another node becomes the root, and then counts as modified.
+     * @param node the root of the tree, not null
+     * @param key the key to splay towards
+     * @return the new root, holding the key if present, otherwise its closest
+     *         neighbour on the search path
+     */
+    private BSTreeNode<E> splay(BSTreeNode<E> node, Comparable<? super E> key) {
+        BSTreeNode<E> header = new BSTreeNode<E>(null);
+        BSTreeNode<E> leftTreeMax = header;   // Largest node of the left tree, its right child is open
+        BSTreeNode<E> rightTreeMin = header;  // Smallest node of the right tree, its left child is open
+        BSTreeNode<E> top = node;
+        int comparison = key.compareTo(node.getData());
+
+        while (comparison != 0) {
+            if (comparison < 0) {
+                BSTreeNode<E> child = node.getLeft();
+                if (child == null) {
+                    break;
+                }
+                int childComparison = key.compareTo(child.getData());
+                if (childComparison < 0 && child.getLeft() != null) {
+                    node = rotateRight(node); // Zig-zig: rotate before linking
+                    rightTreeMin.setLeft(node);
+                    rightTreeMin = node;
+                    node = node.getLeft();
+                    comparison = key.compareTo(node.getData());
+                } else {
+                    rightTreeMin.setLeft(node); // Link the node into the right tree
+                    rightTreeMin = node;
+                    node = child;
+                    comparison = childComparison;
+                }
+            } else {
+                BSTreeNode<E> child = node.getRight();
+                if (child == null) {
+                    break;
+                }
+                int childComparison = key.compareTo(child.getData());
+                if (childComparison > 0 && child.getRight() != null) {
+                    node = rotateLeft(node);  // Zig-zig: rotate before linking
+                    leftTreeMax.setRight(node);
+                    leftTreeMax = node;
+                    node = node.getRight();
+                    comparison = key.compareTo(node.getData());
+                } else {
+                    leftTreeMax.setRight(node); // Link the node into the left tree
+                    leftTreeMax = node;
+                    node = child;
+                    comparison = childComparison;
+                }
+            }
+        }
+
+        // Reassemble: the new root's subtrees hang off the open ends of both trees
+        leftTreeMax.setRight(node.getLeft());
+        rightTreeMin.setLeft(node.getRight());
+        node.setLeft(header.getRight());
+        node.setRight(header.getLeft());
+        lastComparison = comparison;
+        if (node != top) {
+            modCount++;
+        }
+        return node;
+    }
+
+    /**
+     * Rotates a subtree to the right, lifting its left child
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private BSTreeNode<E> rotateRight(BSTreeNode<E> node) {
+        BSTreeNode<E> pivot = node.getLeft();
+        node.setLeft(pivot.getRight());
+        pivot.setRight(node);
+        return pivot;
+    }
+
+    /**
+     * Rotates a subtree to the left, lifting its right child
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private BSTreeNode<E> rotateLeft(BSTreeNode<E> node) {
+        BSTreeNode<E> pivot = node.getRight();
+        node.setRight(pivot.getLeft());
+        pivot.setLeft(node);
+        return pivot;
+    }
+
+    @Override
+    public Iterator<E> inorderIterator() {
+        return new InorderIterator();
+    }
+
+    @Override
+    public Iterator<E> preorderIterator() {
+        return new PreorderIterator();
+    }
+
+    @Override
+    public Iterator<E> postorderIterator() {
+        return new PostorderIterator();
+    }
+
+    @Override
+    public Iterator<E> levelorderIterator() {
+        return new LevelorderIterator(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Iterator<E> levelorderIterator(int maxDepth) throws IllegalArgumentException {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Depth cannot be negative: " + maxDepth);
+        }
+        return new LevelorderIterator(maxDepth);
+    }
+
+    // Serialization
+
+    /**
+     * Saves the tree as a size header followed by its elements in order
+     * @param out the stream to write the tree to
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        Iterator<E> it = inorderIterator();
+        while (it.hasNext()) {
+            out.writeObject(it.next());
+        }
+    }
+
+    /**
+     * Restores a tree written by writeObject, rebuilding it perfectly balanced
+     * in O(n). Access patterns are not saved, so splaying starts afresh.
+     * @param in the stream to read the tree from
+     * @throws IOException if the stream cannot be read or holds an invalid tree
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Negative tree size: " + count);
+        }
+
+        Object[] elements = new Object[Math.min(count, 1024)]; // Grows as elements arrive rather than trusting count
+        for (int i = 0; i < count; i++) {
+            elements = BSTree.appendAscending(elements, i, (E) in.readObject());
+        }
+        root = buildBalanced(elements, 0, count);
+        size = count;
+    }
+
+    /**
+     * Private recursive helper method that links a sorted range of elements into
+     * a balanced subtree. The recursion depth is O(log n).
+     * @param elements the elements in ascending order
+     * @param from the first index of the range
+     * @param to one past the last index of the range
+     * @return the root of the new subtree, or null if the range is empty
+     */
+    @SuppressWarnings("unchecked")
+    private BSTreeNode<E> buildBalanced(Object[] elements, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+
+        int middle = (from + to - 1) >>> 1;
+        BSTreeNode<E> node = new BSTreeNode<E>((E) elements[middle]);
+        node.setLeft(buildBalanced(elements, from, middle));
+        node.setRight(buildBalanced(elements, middle + 1, to));
+        return node;
+    }
+
+    /**
+     * Checks that the tree has not been splayed or structurally changed since
+     * an iteration started
+     * @param expectedModCount the modification count when the iteration started
+     * @throws ConcurrentModificationException if the tree has been changed
+     */
+    private void checkForComodification(int expectedModCount) throws ConcurrentModificationException {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("Tree was modified during iteration");
+        }
+    }
+
+    // Inner Iterator Implementations
+    // Each iterator walks the tree lazily with an explicit stack and does not
+    // splay, so iterating leaves the shape of the tree unchanged. The iterators
+    // are fail-fast: once a lookup splays the tree or it is added to or removed
+    // from, next throws a ConcurrentModificationException instead of walking
+    // nodes that have been rotated elsewhere.
+
+    /**
+     * Iterator over the elements in natural (left, root, right) order
+     */
+    private class InorderIterator implements Iterator<E> {
+        private ArrayDeque<BSTreeNode<E>> stack = new ArrayDeque<BSTreeNode<E>>();
+        private final int expectedModCount = modCount;
+
+        public InorderIterator() {
+            pushLeftSpine(root);
+        }
+
+        /**
+         * Pushes a node and all of its left descendants onto the stack
+         * @param node the top of the spine to push
+         */
+        private void pushLeftSpine(BSTreeNode<E> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.getLeft();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            BSTreeNode<E> node = stack.pop();      // Root
+            pushLeftSpine(node.getRight());        // Right, after its left spine
+            return node.getData();
+        }
+    }
+
+    /**
+     * Iterator over the elements in root, left, right order
+     */
+    private class PreorderIterator implements Iterator<E> {
+        private ArrayDeque<BSTreeNode<E>> stack = new ArrayDeque<BSTreeNode<E>>();
+        private final int expectedModCount = modCount;
+
+        public PreorderIterator() {
+            if (root != null) {
+                stack.push(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            BSTreeNode<E> node = stack.pop();      // Root
+            if (node.getRight() != null) {
+                stack.push(node.getRight());       // Right, visited after left
+            }
+            if (node.getLeft() != null) {
+                stack.push(node.getLeft());        // Left
+            }
+            return node.getData();
+        }
+    }
+
+    /**
+     * Iterator over the elements in left, right, root order
+     */
+    private class PostorderIterator implements Iterator<E> {
+        private ArrayDeque<BSTreeNode<E>> stack = new ArrayDeque<BSTreeNode<E>>();
+        private final int expectedModCount = modCount;
+
+        public PostorderIterator() {
+            pushToFirstLeaf(root);
+        }
+
+        /**
+         * Pushes the path from a node down to the first leaf visited in post-order,
+         * preferring left children over right ones
+         * @param node the top of the path to push
+         */
+        private void pushToFirstLeaf(BSTreeNode<E> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.getLeft() != null ? node.getLeft() : node.getRight();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            BSTreeNode<E> node = stack.pop();
+            // Coming up from a left child means the parent's right subtree is next
+            BSTreeNode<E> parent = stack.peek();
+            if (parent != null && parent.getLeft() == node) {
+                pushToFirstLeaf(parent.getRight());
+            }
+            return node.getData();
+        }
+    }
+
+    /**
+     * Iterator over the elements level by level, down to a maximum depth. The
+     * children of the last level are never queued.
+     */
+    private class LevelorderIterator implements Iterator<E> {
+        private ArrayDeque<BSTreeNode<E>> queue = new ArrayDeque<BSTreeNode<E>>();
+        private final int maxDepth;
+        private int depth = 1;                 // Level of the node at the front of the queue
+        private int levelRemaining;            // Nodes of that level still in the queue
+        private final int expectedModCount = modCount;
+
+        public LevelorderIterator(int maxDepth) {
+            this.maxDepth = maxDepth;
+            if (root != null && maxDepth > 0) {
+                queue.add(root);
+                levelRemaining = 1;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public E next() throws NoSuchElementException, ConcurrentModificationException {
+            checkForComodification(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            BSTreeNode<E> node = queue.poll();
+            if (depth < maxDepth) {
+                if (node.getLeft() != null) {
+                    queue.add(node.getLeft());
+                }
+                if (node.getRight() != null) {
+                    queue.add(node.getRight());
+                }
+            }
+            if (--levelRemaining == 0) {
+                depth++;                           // The queue now holds exactly the next level
+                levelRemaining = queue.size();
+            }
+            return node.getData();
+        }
+    }
+}
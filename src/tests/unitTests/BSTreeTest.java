@@ -2,6 +2,19 @@ package tests.unitTests;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -607,4 +620,722 @@ public class BSTreeTest {
     {
         assertNull( "Failed to return maximum value.", tree.removeMax() );
     }
-}
+
+    /**
+     * Test method for {@link implementations.BSTree#BSTree(boolean)} to keep the
+     * height logarithmic when items are added in sorted order.
+     */
+    @Test
+    public void testSelfBalancing_SortedAdd()
+    {
+        BSTree<Integer> balanced = new BSTree<Integer>( true );
+        balanced.add( one );
+        balanced.add( two );
+        balanced.add( three );
+        balanced.add( four );
+        balanced.add( five );
+        balanced.add( six );
+        balanced.add( seven );
+
+        assertTrue( "Tree should be self-balancing.", balanced.isSelfBalancing() );
+        assertEquals( "Failed to update size correctly.", 7, balanced.size() );
+        assertEquals( "Failed to keep the tree balanced.", 3, balanced.getHeight() );
+        assertEquals( "Failed to rotate the root.", four, balanced.getRoot().getElement() );
+
+        Integer[] shouldBe = { one, two, three, four, five, six, seven };
+        Iterator<Integer> it = balanced.inorderIterator();
+        int i = 0;
+        while( it.hasNext() )
+        {
+            assertEquals( "In-order iterator is out of order ", shouldBe[i++], it.next() );
+        }
+        assertEquals( "Failed to iterate over every element.", 7, i );
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#removeMin()} to rebalance a
+     * self-balancing tree after repeated removals.
+     */
+    @Test
+    public void testSelfBalancing_RemoveMin()
+    {
+        BSTree<Integer> balanced = new BSTree<Integer>( true );
+        for( int i = 1; i <= 1000; i++ )
+        {
+            balanced.add( i );
+        }
+        assertEquals( "Failed to keep the tree balanced.", 10, balanced.getHeight() );
+
+        for( int i = 1; i <= 500; i++ )
+        {
+            assertEquals( "Failed to return minimum value.", i, (int) balanced.removeMin().getElement() );
+        }
+        assertEquals( "Failed to update size.", 500, balanced.size() );
+        assertTrue( "Failed to keep the tree balanced.", balanced.getHeight() <= 10 );
+        assertEquals( "Failed to return maximum value.", 1000, (int) balanced.removeMax().getElement() );
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#add(java.lang.Comparable)} to
+     * build and walk a degenerate tree far deeper than the call stack allows.
+     */
+    @Test
+    public void testAddSorted_DeepTree()
+    {
+        for( int i = 0; i < 100000; i++ )
+        {
+            tree.add( i );
+        }
+        assertEquals( "Failed to return correct height.", 100000, tree.getHeight() );
+        assertNotNull( "Failed to find the deepest element.", tree.search( 99999 ) );
+
+        int count = 0;
+        Iterator<Integer> it = tree.postorderIterator();
+        while( it.hasNext() )
+        {
+            it.next();
+            count++;
+        }
+        assertEquals( "Failed to iterate over every element.", 100000, count );
+        assertEquals( "Failed to return maximum value.", 99999, (int) tree.removeMax().getElement() );
+        assertEquals( "Failed to return minimum value.", 0, (int) tree.removeMin().getElement() );
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#getOrAdd(java.lang.Comparable)}
+     * to return the stored element when present and add the element otherwise.
+     */
+    @Test
+    public void testGetOrAdd()
+    {
+        tree.add( four );
+        tree.add( two );
+
+        assertEquals( "Failed to return the stored element.", two, tree.getOrAdd( two ) );
+        assertEquals( "Size should not change for an existing element.", 2, tree.size() );
+
+        assertSame( "Failed to return the added element.", six, tree.getOrAdd( six ) );
+        assertEquals( "Failed to update size correctly.", 3, tree.size() );
+        assertTrue( "Failed to add the element.", tree.contains( six ) );
+    }
+
+    /**
+     * Test method for
+     * {@link implementations.BSTree#computeIfAbsent(java.lang.Comparable, java.util.function.Supplier)}
+     * to only call the factory when the key is not found.
+     */
+    @Test
+    public void testComputeIfAbsent()
+    {
+        tree.add( four );
+        tree.add( two );
+        final int[] calls = { 0 };
+
+        Integer found = tree.computeIfAbsent( two, () -> { calls[0]++; return two; } );
+        assertSame( "Failed to return the stored element.", two, found );
+        assertEquals( "Factory should not be called for an existing key.", 0, calls[0] );
+
+        Integer added = tree.computeIfAbsent( five, () -> { calls[0]++; return five; } );
+        assertSame( "Failed to return the created element.", five, added );
+        assertEquals( "Factory should be called once for a new key.", 1, calls[0] );
+        assertEquals( "Failed to update size correctly.", 3, tree.size() );
+        assertEquals( "Failed to update height correctly.", 2, tree.getHeight() );
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#select(int)} to return the
+     * element at each position in the natural ordering.
+     */
+    @Test
+    public void testSelect()
+    {
+        tree.add( four );
+        tree.add( two );
+        tree.add( six );
+        tree.add( one );
+        tree.add( five );
+        tree.add( three );
+        tree.add( seven );
+
+        Integer[] shouldBe = { one, two, three, four, five, six, seven };
+        for( int k = 0; k < shouldBe.length; k++ )
+        {
+            assertEquals( "Failed to select the correct element.", shouldBe[k], tree.select( k ).getElement() );
+        }
+
+        tree.removeMin();
+        assertEquals( "Failed to update sizes after removal.", two, tree.select( 0 ).getElement() );
+        assertEquals( "Failed to update sizes after removal.", seven, tree.select( 5 ).getElement() );
+        try
+        {
+            tree.select( 6 );
+            fail( "Failed to throw IndexOutOfBoundsException." );
+        }
+        catch( IndexOutOfBoundsException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#rank(java.lang.Comparable)} to
+     * count the elements smaller than present and absent elements.
+     */
+    @Test
+    public void testRank()
+    {
+        BSTree<Integer> balanced = new BSTree<Integer>( true );
+        for( int i = 0; i < 100; i++ )
+        {
+            balanced.add( i * 2 );
+        }
+
+        assertEquals( "Failed to rank the smallest element.", 0, balanced.rank( 0 ) );
+        assertEquals( "Failed to rank a stored element.", 21, balanced.rank( 42 ) );
+        assertEquals( "Failed to rank a missing element.", 22, balanced.rank( 43 ) );
+        assertEquals( "Failed to rank past the largest element.", 100, balanced.rank( 500 ) );
+        assertEquals( "Rank and select should agree.", 42, (int) balanced.select( balanced.rank( 42 ) ).getElement() );
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#floor(java.lang.Comparable)},
+     * {@link implementations.BSTree#ceiling(java.lang.Comparable)},
+     * {@link implementations.BSTree#lower(java.lang.Comparable)} and
+     * {@link implementations.BSTree#higher(java.lang.Comparable)} to find the
+     * nearest elements around present and absent keys.
+     */
+    @Test
+    public void testNavigation()
+    {
+        tree.add( four );
+        tree.add( two );
+        tree.add( six );
+
+        assertEquals( "Failed to return floor.", four, tree.floor( four ).getElement() );
+        assertEquals( "Failed to return floor.", four, tree.floor( 50 ).getElement() );
+        assertEquals( "Failed to return ceiling.", six, tree.ceiling( 50 ).getElement() );
+        assertEquals( "Failed to return lower.", two, tree.lower( four ).getElement() );
+        assertEquals( "Failed to return higher.", six, tree.higher( four ).getElement() );
+        assertNull( "Failed to return null below the smallest element.", tree.floor( one ) );
+        assertNull( "Failed to return null above the largest element.", tree.higher( six ) );
+    }
+
+    /**
+     * Test method for
+     * {@link implementations.BSTree#rangeIterator(java.lang.Comparable, java.lang.Comparable)}
+     * to iterate over the elements from an inclusive start to an exclusive end.
+     */
+    @Test
+    public void testRangeIterator()
+    {
+        tree.add( four );
+        tree.add( two );
+        tree.add( six );
+        tree.add( one );
+        tree.add( five );
+        tree.add( three );
+        tree.add( seven );
+
+        Integer[] shouldBe = { three, four, five };
+        Iterator<Integer> it = tree.rangeIterator( 30, six );
+        int i = 0;
+        while( it.hasNext() )
+        {
+            assertEquals( "Range iterator is out of order ", shouldBe[i++], it.next() );
+        }
+        assertEquals( "Failed to iterate over the range.", 3, i );
+        assertFalse( "Empty range should have no elements.", tree.rangeIterator( 12, 21 ).hasNext() );
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#fromSorted(utilities.Iterator, int)}
+     * to rebuild a degenerate tree as a balanced one.
+     */
+    @Test
+    public void testFromSorted()
+    {
+        tree.add( one );
+        tree.add( two );
+        tree.add( three );
+        tree.add( four );
+        tree.add( five );
+        tree.add( six );
+        tree.add( seven );
+        assertEquals( "Failed to return correct height.", 7, tree.getHeight() );
+
+        BSTree<Integer> rebuilt = BSTree.fromSorted( tree.inorderIterator(), tree.size() );
+        assertEquals( "Failed to copy every element.", 7, rebuilt.size() );
+        assertEquals( "Failed to build a balanced tree.", 3, rebuilt.getHeight() );
+        assertEquals( "Failed to pick the middle element as root.", four, rebuilt.getRoot().getElement() );
+        assertEquals( "Failed to record subtree sizes.", six, rebuilt.select( 5 ).getElement() );
+
+        rebuilt.add( 88 );
+        assertEquals( "Failed to update height correctly.", 4, rebuilt.getHeight() );
+        assertEquals( "Empty iteration should build an empty tree.", 0,
+                BSTree.fromSorted( new BSTree<Integer>().inorderIterator(), 0 ).size() );
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#remove(java.lang.Comparable)}
+     * to splice out leaves, nodes with one child and nodes with two children.
+     */
+    @Test
+    public void testRemove()
+    {
+        tree.add( four );
+        tree.add( two );
+        tree.add( six );
+        tree.add( one );
+        tree.add( three );
+        tree.add( five );
+        tree.add( seven );
+
+        BSTreeNode<Integer> removed = tree.remove( four );
+        assertEquals( "Failed to return the removed element.", four, removed.getElement() );
+        assertNull( "Removed node should be detached.", removed.getLeft() );
+        assertEquals( "Successor should replace the root.", five, tree.getRoot().getElement() );
+        assertEquals( "Failed to remove a leaf.", one, tree.remove( one ).getElement() );
+        assertEquals( "Failed to remove a node with one child.", six, tree.remove( six ).getElement() );
+        assertNull( "Failed to return null.", tree.remove( 99 ) );
+
+        assertEquals( "Failed to update size.", 4, tree.size() );
+        assertEquals( "Failed to update height correctly.", 3, tree.getHeight() );
+        Iterator<Integer> it = tree.preorderIterator();
+        assertEquals( "Preorder iterator is out of order ", five, it.next() );
+        assertEquals( "Preorder iterator is out of order ", two, it.next() );
+        assertEquals( "Preorder iterator is out of order ", three, it.next() );
+        assertEquals( "Preorder iterator is out of order ", seven, it.next() );
+        assertFalse( "Iterator should be exhausted.", it.hasNext() );
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#remove(java.lang.Comparable)}
+     * to keep a self-balancing tree balanced.
+     */
+    @Test
+    public void testRemove_SelfBalancing()
+    {
+        tree = new BSTree<Integer>( true );
+        for( int i = 0; i < 1024; i++ )
+        {
+            tree.add( i );
+        }
+        for( int i = 0; i < 768; i++ )
+        {
+            assertEquals( "Failed to return the removed element.", i, (int) tree.remove( i ).getElement() );
+        }
+
+        assertEquals( "Failed to update size.", 256, tree.size() );
+        assertTrue( "Failed to keep the tree balanced.", tree.getHeight() <= 11 );
+        assertEquals( "Failed to update subtree sizes.", 768, (int) tree.select( 0 ).getElement() );
+        assertEquals( "Failed to update subtree sizes.", 255, tree.rank( 1023 ) );
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#removeAll(utilities.Iterator)}
+     * to remove small and large sorted batches and reject unsorted ones.
+     */
+    @Test
+    public void testRemoveAll()
+    {
+        BSTree<Integer> evens = new BSTree<Integer>();
+        for( int i = 0; i < 100; i++ )
+        {
+            tree.add( i );
+            if( i % 2 == 0 )
+            {
+                evens.add( i );
+            }
+        }
+        evens.add( 1000 );
+
+        assertEquals( "Failed to remove the batch.", 50, tree.removeAll( evens.inorderIterator() ) );
+        assertEquals( "Failed to update size.", 50, tree.size() );
+        assertEquals( "Failed to rebuild a balanced tree.", 6, tree.getHeight() );
+        assertFalse( "Failed to remove element.", tree.contains( 98 ) );
+        assertTrue( "Failed to keep element.", tree.contains( 99 ) );
+
+        BSTree<Integer> small = new BSTree<Integer>();
+        small.add( 1 );
+        small.add( 3 );
+        assertEquals( "Failed to remove the batch.", 2, tree.removeAll( small.inorderIterator() ) );
+        assertEquals( "Failed to update size.", 48, tree.size() );
+
+        small.add( 0 ); // Pre-order iteration 1, 0, 3 is out of order
+        try
+        {
+            tree.removeAll( small.preorderIterator() );
+            fail( "Failed to throw IllegalArgumentException." );
+        }
+        catch( IllegalArgumentException e )
+        {
+            assertEquals( "Unsorted batch should leave the tree unchanged.", 48, tree.size() );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#pollFirst(int)} and
+     * {@link implementations.BSTree#pollLast(int)} to remove batches of the
+     * smallest and largest elements in order.
+     */
+    @Test
+    public void testPollFirstLast()
+    {
+        BSTree<Integer> avl = new BSTree<Integer>( true );
+        for( int i = 1; i <= 1023; i++ )
+        {
+            avl.add( i );
+        }
+
+        List<Integer> first = avl.pollFirst( 100 );
+        assertEquals( "Failed to return the batch.", 100, first.size() );
+        for( int i = 0; i < 100; i++ )
+        {
+            assertEquals( "Batch is out of order.", i + 1, (int) first.get( i ) );
+        }
+        List<Integer> last = avl.pollLast( 3 );
+        assertEquals( "Batch is out of order.", Arrays.asList( 1023, 1022, 1021 ), last );
+
+        assertEquals( "Failed to update size.", 920, avl.size() );
+        assertTrue( "Failed to stay balanced.", avl.getHeight() <= 10 );
+        assertEquals( "Failed to update subtree sizes.", 0, avl.rank( 101 ) );
+        assertEquals( "Failed to return minimum value.", 101, (int) avl.removeMin().getElement() );
+        assertEquals( "Failed to return maximum value.", 1020, (int) avl.removeMax().getElement() );
+
+        tree.add( 22 );
+        tree.add( 11 );
+        tree.add( 33 );
+        assertTrue( "Failed to return an empty batch.", tree.pollFirst( 0 ).isEmpty() );
+        assertEquals( "Failed to drain the tree.", Arrays.asList( 33, 22, 11 ), tree.pollLast( 10 ) );
+        assertTrue( "Failed to return true.", tree.isEmpty() );
+        assertTrue( "Failed to return an empty batch.", tree.pollFirst( 5 ).isEmpty() );
+
+        try
+        {
+            tree.pollFirst( -1 );
+            fail( "Failed to throw IllegalArgumentException." );
+        }
+        catch( IllegalArgumentException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for
+     * {@link implementations.BSTree#merge(implementations.BSTree, java.util.function.BinaryOperator)}
+     * to take the union of two trees, combining the elements found in both.
+     */
+    @Test
+    public void testMerge()
+    {
+        tree.add( one );
+        tree.add( three );
+        tree.add( five );
+        tree.add( seven );
+        BSTree<Integer> other = new BSTree<Integer>();
+        other.add( two );
+        other.add( three );
+        other.add( four );
+
+        List<Integer> combined = new ArrayList<Integer>();
+        assertEquals( "Failed to count the added elements.", 2, tree.merge( other, ( a, b ) -> {
+            combined.add( a );
+            return b;
+        } ) );
+        assertEquals( "Failed to combine matching elements.", 1, combined.size() );
+        assertEquals( "Failed to combine matching elements.", three, combined.get( 0 ) );
+        assertEquals( "Failed to update size.", 6, tree.size() );
+        assertEquals( "Failed to build a balanced tree.", 3, tree.getHeight() );
+        assertEquals( "Failed to keep the other tree.", 3, other.size() );
+        Iterator<Integer> it = tree.inorderIterator();
+        for( Integer expected : new Integer[] { one, two, three, four, five, seven } )
+        {
+            assertEquals( "In-order iterator is out of order ", expected, it.next() );
+        }
+
+        try
+        {
+            tree.merge( other, ( a, b ) -> a + 1 );
+            fail( "Failed to throw IllegalArgumentException." );
+        }
+        catch( IllegalArgumentException e )
+        {
+            assertEquals( "Failed merge should leave the tree unchanged.", 6, tree.size() );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#levelorderIterator()} and
+     * {@link implementations.BSTree#levelorderIterator(int)} to return the
+     * elements level by level, stopping at the maximum depth.
+     */
+    @Test
+    public void testLevelorderIterator()
+    {
+        tree.add( four );
+        tree.add( two );
+        tree.add( six );
+        tree.add( one );
+        tree.add( three );
+        tree.add( five );
+        tree.add( seven );
+        tree.add( 88 );
+
+        Integer[] expected = { four, two, six, one, three, five, seven, 88 };
+        Iterator<Integer> it = tree.levelorderIterator();
+        for( Integer value : expected )
+        {
+            assertEquals( "Level-order iterator is out of order ", value, it.next() );
+        }
+        assertFalse( "Iterator should be exhausted.", it.hasNext() );
+
+        it = tree.levelorderIterator( 2 );
+        assertEquals( "Level-order iterator is out of order ", four, it.next() );
+        assertEquals( "Level-order iterator is out of order ", two, it.next() );
+        assertEquals( "Level-order iterator is out of order ", six, it.next() );
+        assertFalse( "Failed to stop at the maximum depth.", it.hasNext() );
+        assertFalse( "Depth 0 should return nothing.", tree.levelorderIterator( 0 ).hasNext() );
+        try
+        {
+            tree.levelorderIterator( -1 );
+            fail( "Failed to throw IllegalArgumentException." );
+        }
+        catch( IllegalArgumentException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#spliterator()} to split a
+     * degenerate tree into halves of exact size that keep the natural order.
+     */
+    @Test
+    public void testSpliterator()
+    {
+        for( int i = 0; i < 100; i++ )
+        {
+            tree.add( i );
+        }
+
+        Spliterator<Integer> suffix = tree.spliterator();
+        assertTrue( "Failed to report the characteristics.",
+                suffix.hasCharacteristics( Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.SUBSIZED ) );
+        assertNull( "Failed to report natural ordering.", suffix.getComparator() );
+        Spliterator<Integer> prefix = suffix.trySplit();
+        assertEquals( "Failed to split in half.", 50, prefix.estimateSize() );
+        assertEquals( "Failed to split in half.", 50, suffix.estimateSize() );
+
+        List<Integer> elements = new ArrayList<Integer>();
+        assertTrue( "Failed to advance.", prefix.tryAdvance( elements::add ) );
+        Spliterator<Integer> middle = prefix.trySplit(); // Split after the traversal started
+        middle.forEachRemaining( elements::add );
+        prefix.forEachRemaining( elements::add );
+        suffix.forEachRemaining( elements::add );
+        for( int i = 0; i < 100; i++ )
+        {
+            assertEquals( "Spliterators are out of order.", i, (int) elements.get( i ) );
+        }
+        assertEquals( "Failed to cover every element once.", 100, elements.size() );
+        assertFalse( "Exhausted spliterator should not advance.", suffix.tryAdvance( elements::add ) );
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#stream()} and
+     * {@link implementations.BSTree#parallelStream()} to produce the elements in
+     * their natural order.
+     */
+    @Test
+    public void testStream()
+    {
+        tree = new BSTree<Integer>( true );
+        for( int i = 9999; i >= 0; i-- )
+        {
+            tree.add( i );
+        }
+
+        assertEquals( "Failed to stream every element.", 49995000L,
+                tree.stream().mapToLong( Integer::longValue ).sum() );
+        assertEquals( "Failed to stream every element.", 49995000L,
+                tree.parallelStream().mapToLong( Integer::longValue ).sum() );
+        List<Integer> evens = tree.parallelStream().filter( i -> i % 2 == 0 ).collect( Collectors.toList() );
+        assertEquals( "Failed to filter the elements.", 5000, evens.size() );
+        for( int i = 0; i < evens.size(); i++ )
+        {
+            assertEquals( "Parallel stream is out of order.", 2 * i, (int) evens.get( i ) );
+        }
+        assertEquals( "Empty tree should stream nothing.", 0, new BSTree<Integer>().stream().count() );
+    }
+
+    /**
+     * Test method for the iterators of {@link implementations.BSTree} to throw
+     * ConcurrentModificationException once the tree is changed, but not when an
+     * element already in the tree is added again.
+     */
+    @Test
+    public void testIterators_FailFast()
+    {
+        tree.add( four );
+        tree.add( two );
+        tree.add( six );
+
+        Iterator<Integer> inorder = tree.inorderIterator();
+        Iterator<Integer> range = tree.rangeIterator( one, seven );
+        assertEquals( "In-order iterator is out of order ", two, inorder.next() );
+        tree.add( two ); // Already in the tree - not a change
+        assertEquals( "In-order iterator is out of order ", four, inorder.next() );
+
+        tree.add( five );
+        try
+        {
+            inorder.next();
+            fail( "Failed to throw ConcurrentModificationException." );
+        }
+        catch( ConcurrentModificationException e )
+        {
+            assertTrue( true );
+        }
+        try
+        {
+            range.next();
+            fail( "Failed to throw ConcurrentModificationException." );
+        }
+        catch( ConcurrentModificationException e )
+        {
+            assertTrue( true );
+        }
+
+        Iterator<Integer> postorder = tree.postorderIterator();
+        tree.removeMin();
+        try
+        {
+            postorder.next();
+            fail( "Failed to throw ConcurrentModificationException." );
+        }
+        catch( ConcurrentModificationException e )
+        {
+            assertTrue( true );
+        }
+
+        Stream<Integer> stream = tree.stream();
+        tree.add( seven ); // The stream binds to the tree when it runs
+        assertEquals( "Failed to stream every element.", 4, stream.count() );
+        try
+        {
+            tree.stream().forEach( i -> tree.add( i + 1000 ) );
+            fail( "Failed to throw ConcurrentModificationException." );
+        }
+        catch( ConcurrentModificationException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.BSTree#snapshotIterator()} to keep
+     * iterating over the elements as they were when it was created.
+     */
+    @Test
+    public void testSnapshotIterator()
+    {
+        tree.add( two );
+        tree.add( four );
+        tree.add( six );
+
+        Iterator<Integer> it = tree.snapshotIterator();
+        assertEquals( "Snapshot iterator is out of order ", two, it.next() );
+        tree.add( three );
+        tree.remove( four );
+        assertEquals( "Snapshot should not see changes.", four, it.next() );
+        tree.clear();
+        assertEquals( "Snapshot should not see changes.", six, it.next() );
+        assertFalse( "Iterator should be exhausted.", it.hasNext() );
+    }
+
+    /**
+     * Test method for serializing a {@link implementations.BSTree} to save its
+     * elements and restore them as a balanced tree.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSerialization_RoundTrip() throws Exception
+    {
+        for( int i = 0; i < 1000; i++ )
+        {
+            tree.add( i );
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream( bytes );
+        out.writeObject( tree );
+        out.close();
+        ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) );
+        @SuppressWarnings( "unchecked" )
+        BSTree<Integer> restored = (BSTree<Integer>) in.readObject();
+        in.close();
+
+        assertEquals( "Failed to restore size.", 1000, restored.size() );
+        assertEquals( "Failed to rebuild a balanced tree.", 10, restored.getHeight() );
+        assertFalse( "Failed to restore the balancing mode.", restored.isSelfBalancing() );
+        Iterator<Integer> it = restored.inorderIterator();
+        for( int i = 0; i < 1000; i++ )
+        {
+            assertEquals( "Failed to restore elements in order.", i, (int) it.next() );
+        }
+        assertTrue( "Restored tree should accept new elements.", restored.add( 1000 ) );
+    }
+
+    /**
+     * Test method for deserializing a {@link implementations.BSTree} saved as
+     * nested nodes by an earlier version, then switching balancing on with
+     * {@link implementations.BSTree#setSelfBalancing(boolean)} so that sorted
+     * input keeps it balanced.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSerialization_EarlierVersion() throws Exception
+    {
+        // 0 to 9 added in order to a tree without balancing, so saved as a chain
+        String saved = "rO0ABXNyABZpbXBsZW1lbnRhdGlvbnMuQlNUcmVlAAAAAAAAAAECAAJJAARzaXplTAAEcm9vdHQAHExpbXBsZW1lbnRhdGlvbnMv"
+                + "QlNUcmVlTm9kZTt4cAAAAApzcgAaaW1wbGVtZW50YXRpb25zLkJTVHJlZU5vZGUAAAAAAAAAAQIAA0wABGRhdGF0ABJMamF2YS9s"
+                + "YW5nL09iamVjdDtMAARsZWZ0cQB+AAFMAAVyaWdodHEAfgABeHBzcgARamF2YS5sYW5nLkludGVnZXIS4qCk94GHOAIAAUkABXZh"
+                + "bHVleHIAEGphdmEubGFuZy5OdW1iZXKGrJUdC5TgiwIAAHhwAAAAAHBzcQB+AANzcQB+AAYAAAABcHNxAH4AA3NxAH4ABgAAAAJw"
+                + "c3EAfgADc3EAfgAGAAAAA3BzcQB+AANzcQB+AAYAAAAEcHNxAH4AA3NxAH4ABgAAAAVwc3EAfgADc3EAfgAGAAAABnBzcQB+AANz"
+                + "cQB+AAYAAAAHcHNxAH4AA3NxAH4ABgAAAAhwc3EAfgADc3EAfgAGAAAACXBw";
+        ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( Base64.getDecoder().decode( saved ) ) );
+        @SuppressWarnings( "unchecked" )
+        BSTree<Integer> restored = (BSTree<Integer>) in.readObject();
+        in.close();
+
+        assertEquals( "Failed to restore size.", 10, restored.size() );
+        assertFalse( "A tree saved without a balancing mode should be plain.", restored.isSelfBalancing() );
+
+        Iterator<Integer> stale = restored.inorderIterator();
+        restored.setSelfBalancing( true );
+        assertTrue( "Failed to switch balancing on.", restored.isSelfBalancing() );
+        try
+        {
+            stale.next();
+            fail( "Failed to throw ConcurrentModificationException." );
+        }
+        catch( ConcurrentModificationException e )
+        {
+            assertTrue( true );
+        }
+
+        for( int i = 10; i < 2010; i++ )
+        {
+            assertTrue( "Failed to add element.", restored.add( i ) );
+        }
+        assertEquals( "Failed to update size correctly.", 2010, restored.size() );
+        assertTrue( "Failed to keep the tree balanced.", restored.getHeight() <= 12 );
+        Iterator<Integer> it = restored.inorderIterator();
+        for( int i = 0; i < 2010; i++ )
+        {
+            assertEquals( "Failed to keep elements in order.", i, (int) it.next() );
+        }
+    }
+}
\ No newline at end of file
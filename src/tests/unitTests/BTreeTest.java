@@ -0,0 +1,346 @@
+package tests.unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ConcurrentModificationException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import utilities.Iterator;
+
+import implementations.BTree;
+
+/**
+ * Class Description: Unit tests for the B-tree implementation of the
+ * BSTreeADT.
+ */
+public class BTreeTest {
+    // Attributes
+    private BTree<Integer> tree;
+
+    /**
+     * Initializes a new BTree instance before each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        tree = new BTree<Integer>( 2 ); // Small nodes so splits and merges happen often
+    }
+
+    /**
+     * Cleans up instances used after each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        tree = null;
+    }
+
+    /**
+     * Test method for {@link implementations.BTree#BTree(int)} for creating an
+     * empty tree.
+     */
+    @Test
+    public void testConstructor()
+    {
+        assertEquals( "Failed to return correct size.", 0, tree.size() );
+        assertEquals( "Height of tree should be ", 0, tree.getHeight() );
+        assertTrue( "Failed to return true.", tree.isEmpty() );
+        assertNull( "Failed to return null.", tree.removeMin() );
+        assertNull( "Failed to return null.", tree.removeMax() );
+    }
+
+    /**
+     * Test method for {@link implementations.BTree#add(java.lang.Comparable)}
+     * to keep every leaf at the same shallow depth for sorted input.
+     */
+    @Test
+    public void testAdd_SortedStaysShallow()
+    {
+        for( int i = 0; i < 1023; i++ )
+        {
+            assertTrue( "Failed to add element.", tree.add( i ) );
+        }
+        assertFalse( "Duplicate should not be added.", tree.add( 500 ) );
+
+        assertEquals( "Failed to update size correctly.", 1023, tree.size() );
+        assertTrue( "Failed to keep the tree shallow.", tree.getHeight() <= 10 );
+        assertTrue( "Failed to return true.", tree.contains( 1022 ) );
+        assertFalse( "Failed to return false.", tree.contains( 1023 ) );
+        assertEquals( "Failed to return the correct element.", 511, (int) tree.search( 511 ).getElement() );
+        assertNull( "Failed to return null.", tree.search( -1 ) );
+    }
+
+    /**
+     * Test method for {@link implementations.BTree#add(java.lang.Comparable)}
+     * to throw a NullPointerException when passing a null.
+     */
+    @Test
+    public void testAddForNullPointerException()
+    {
+        try
+        {
+            tree.add( null );
+            fail( "Add method failed to throw NullPointerException." );
+        }
+        catch( NullPointerException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.BTree#getRoot()} to throw
+     * NullPointerException when getting the root of an empty tree.
+     */
+    @Test
+    public void testGetRoot_NullPointerException()
+    {
+        try
+        {
+            tree.getRoot();
+            fail( "Failed to throw NullPointerException." );
+        }
+        catch( NullPointerException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.BTree#removeMin()} and
+     * {@link implementations.BTree#removeMax()} to remove elements in order
+     * while borrowing from and merging nodes.
+     */
+    @Test
+    public void testRemoveMinMax()
+    {
+        for( int i = 1; i <= 100; i++ )
+        {
+            tree.add( i );
+        }
+        for( int i = 1; i <= 50; i++ )
+        {
+            assertEquals( "Failed to return minimum value.", i, (int) tree.removeMin().getElement() );
+        }
+        assertEquals( "Failed to return maximum value.", 100, (int) tree.removeMax().getElement() );
+        assertEquals( "Failed to update size.", 49, tree.size() );
+
+        for( int i = 1; i <= 50; i++ )
+        {
+            tree.add( i );
+        }
+        assertEquals( "Failed to update size.", 99, tree.size() );
+        assertTrue( "Failed to keep the tree shallow.", tree.getHeight() <= 7 );
+        assertEquals( "Failed to return minimum value.", 1, (int) tree.removeMin().getElement() );
+    }
+
+    /**
+     * Test method for the in-order, pre-order and post-order iterators of
+     * {@link implementations.BTree}, where pre-order visits the elements of a
+     * node before its children and post-order after them.
+     */
+    @Test
+    public void testIterators()
+    {
+        tree.add( 44 );
+        tree.add( 22 );
+        tree.add( 66 );
+        tree.add( 11 );
+        tree.add( 55 );
+        tree.add( 33 );
+        tree.add( 77 );
+
+        assertOrder( "In-order iterator is out of order ", new int[] { 11, 22, 33, 44, 55, 66, 77 },
+                tree.inorderIterator() );
+        // Root [44] with leaves [11, 22, 33] and [55, 66, 77]
+        assertOrder( "Preorder iterator is out of order ", new int[] { 44, 11, 22, 33, 55, 66, 77 },
+                tree.preorderIterator() );
+        assertOrder( "Postorder iterator is out of order ", new int[] { 11, 22, 33, 55, 66, 77, 44 },
+                tree.postorderIterator() );
+        assertEquals( "Height of tree should be ", 2, tree.getHeight() );
+        assertEquals( "Failed to return the root element.", 44, (int) tree.getRoot().getElement() );
+    }
+
+    /**
+     * Test method for {@link implementations.BTree#remove(java.lang.Comparable)}
+     * and {@link implementations.BTree#removeAll(utilities.Iterator)} to remove
+     * single elements and sorted batches.
+     */
+    @Test
+    public void testRemove()
+    {
+        for( int i = 0; i < 200; i++ )
+        {
+            tree.add( i );
+        }
+
+        assertEquals( "Failed to return the removed element.", 100, (int) tree.remove( 100 ).getElement() );
+        assertNull( "Failed to return null.", tree.remove( 100 ) );
+        assertFalse( "Failed to remove element.", tree.contains( 100 ) );
+
+        BTree<Integer> batch = new BTree<Integer>();
+        for( int i = 0; i < 300; i += 3 )
+        {
+            batch.add( i );
+        }
+        assertEquals( "Failed to remove the batch.", 67, tree.removeAll( batch.inorderIterator() ) );
+        assertEquals( "Failed to update size.", 132, tree.size() );
+        assertEquals( "Failed to return minimum value.", 1, (int) tree.removeMin().getElement() );
+        assertEquals( "Failed to return maximum value.", 199, (int) tree.removeMax().getElement() );
+    }
+
+    /**
+     * Test method for {@link implementations.BTree#levelorderIterator()} and
+     * {@link implementations.BTree#levelorderIterator(int)} to return the
+     * elements node by node, one level of nodes at a time.
+     */
+    @Test
+    public void testLevelorderIterator()
+    {
+        tree.add( 44 );
+        tree.add( 22 );
+        tree.add( 66 );
+        tree.add( 11 );
+        tree.add( 55 );
+        tree.add( 33 );
+        tree.add( 77 );
+        assertOrder( "Level-order iterator is out of order ", new int[] { 44, 11, 22, 33, 55, 66, 77 },
+                tree.levelorderIterator() );
+        assertOrder( "Failed to stop at the maximum depth.", new int[] { 44 }, tree.levelorderIterator( 1 ) );
+        assertOrder( "Depth 0 should return nothing.", new int[] {}, tree.levelorderIterator( 0 ) );
+    }
+
+    /**
+     * Test method for
+     * {@link implementations.BTree#computeIfAbsent(java.lang.Comparable, java.util.function.Supplier)}
+     * to return the stored element or create a new one.
+     */
+    @Test
+    public void testComputeIfAbsent()
+    {
+        tree.add( 22 );
+        assertEquals( "Failed to return the stored element.", 22,
+                (int) tree.computeIfAbsent( 22, () -> { throw new AssertionError( "Factory called" ); } ) );
+        assertEquals( "Failed to return the created element.", 33, (int) tree.computeIfAbsent( 33, () -> 33 ) );
+        assertEquals( "Failed to return the added element.", 11, (int) tree.getOrAdd( 11 ) );
+        assertEquals( "Failed to update size correctly.", 3, tree.size() );
+    }
+
+    /**
+     * Test method for the iterators of {@link implementations.BTree} to throw
+     * ConcurrentModificationException once the tree is changed, but not after
+     * adding an element that is already in the tree without splitting a node.
+     */
+    @Test
+    public void testIterators_FailFast()
+    {
+        for( int i = 0; i < 100; i++ )
+        {
+            tree.add( i );
+        }
+
+        Iterator<Integer> inorder = tree.inorderIterator();
+        Iterator<Integer> preorder = tree.preorderIterator();
+        Iterator<Integer> postorder = tree.postorderIterator();
+        Iterator<Integer> levelorder = tree.levelorderIterator();
+        assertEquals( "In-order iterator is out of order ", 0, (int) inorder.next() );
+        assertFalse( "Duplicate should not be added.", tree.add( 50 ) );
+        assertEquals( "In-order iterator is out of order ", 1, (int) inorder.next() );
+
+        tree.add( 100 );
+        Iterator<?>[] iterators = { inorder, preorder, postorder, levelorder };
+        for( Iterator<?> it : iterators )
+        {
+            try
+            {
+                it.next();
+                fail( "Failed to throw ConcurrentModificationException." );
+            }
+            catch( ConcurrentModificationException e )
+            {
+                assertTrue( true );
+            }
+        }
+
+        Iterator<Integer> after = tree.inorderIterator();
+        tree.remove( 50 );
+        try
+        {
+            after.next();
+            fail( "Failed to throw ConcurrentModificationException." );
+        }
+        catch( ConcurrentModificationException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for serializing an {@link implementations.BTree} to save
+     * its elements and restore them.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSerialization_RoundTrip() throws Exception
+    {
+        for( int i = 0; i < 200; i++ )
+        {
+            tree.add( i );
+        }
+        tree.removeMin();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream( bytes );
+        out.writeObject( tree );
+        out.close();
+        ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) );
+        @SuppressWarnings( "unchecked" )
+        BTree<Integer> restored = (BTree<Integer>) in.readObject();
+        in.close();
+
+        assertEquals( "Failed to restore size.", 199, restored.size() );
+        assertEquals( "Failed to load full nodes.", 4, restored.getHeight() );
+        Iterator<Integer> it = restored.inorderIterator();
+        for( int i = 1; i < 200; i++ )
+        {
+            assertEquals( "Failed to restore elements in order.", i, (int) it.next() );
+        }
+        assertTrue( "Restored tree should accept new elements.", restored.add( 0 ) );
+        assertEquals( "Failed to return minimum value.", 0, (int) restored.removeMin().getElement() );
+        for( int i = 199; i >= 100; i-- )
+        {
+            assertEquals( "Failed to return maximum value.", i, (int) restored.removeMax().getElement() );
+        }
+        assertEquals( "Failed to update size.", 99, restored.size() );
+        assertEquals( "Failed to return minimum value.", 1, (int) restored.removeMin().getElement() );
+    }
+
+    /**
+     * Checks that an iterator returns exactly the expected elements in order.
+     *
+     * @param message the failure message
+     * @param expected the expected elements
+     * @param it the iterator to check
+     */
+    private void assertOrder( String message, int[] expected, Iterator<Integer> it )
+    {
+        for( int value : expected )
+        {
+            assertTrue( message, it.hasNext() );
+            assertEquals( message, value, (int) it.next() );
+        }
+        assertFalse( message, it.hasNext() );
+    }
+}
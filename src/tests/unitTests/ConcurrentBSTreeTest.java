@@ -0,0 +1,528 @@
+package tests.unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import utilities.Iterator;
+
+import implementations.BSTreeNode;
+import implementations.ConcurrentBSTree;
+
+/**
+ * Class Description: Unit tests for the thread-safe implementation of the
+ * BSTreeADT, including stress tests with several threads changing one tree.
+ */
+public class ConcurrentBSTreeTest {
+    // Attributes
+    private static final int THREADS = 8;
+
+    private ConcurrentBSTree<Integer> tree;
+
+    /**
+     * Initializes a new ConcurrentBSTree instance before each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        tree = new ConcurrentBSTree<Integer>();
+    }
+
+    /**
+     * Cleans up instances used after each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        tree = null;
+    }
+
+    /**
+     * Test method for {@link implementations.ConcurrentBSTree#ConcurrentBSTree()}
+     * for creating an empty tree.
+     */
+    @Test
+    public void testConstructor()
+    {
+        assertEquals( "Failed to return correct size.", 0, tree.size() );
+        assertEquals( "Height of tree should be ", 0, tree.getHeight() );
+        assertTrue( "Failed to return true.", tree.isEmpty() );
+        assertNull( "Failed to return null.", tree.search( 1 ) );
+        assertNull( "Failed to return null.", tree.removeMin() );
+        assertNull( "Failed to return null.", tree.removeMax() );
+    }
+
+    /**
+     * Test method for {@link implementations.ConcurrentBSTree#add(java.lang.Comparable)}
+     * to add elements in order and reject duplicates.
+     */
+    @Test
+    public void testAdd()
+    {
+        assertTrue( "Failed to add element.", tree.add( 22 ) );
+        assertTrue( "Failed to add element.", tree.add( 11 ) );
+        assertTrue( "Failed to add element.", tree.add( 33 ) );
+        assertFalse( "Duplicate should not be added.", tree.add( 22 ) );
+
+        assertEquals( "Failed to update size correctly.", 3, tree.size() );
+        assertEquals( "Height of tree should be ", 2, tree.getHeight() );
+        assertEquals( "Failed to return the root.", 22, (int) tree.getRoot().getElement() );
+        assertTrue( "Failed to return true.", tree.contains( 33 ) );
+        assertFalse( "Failed to return false.", tree.contains( 44 ) );
+
+        try
+        {
+            tree.add( null );
+            fail( "Add method failed to throw NullPointerException." );
+        }
+        catch( NullPointerException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.ConcurrentBSTree#getRoot()} to throw
+     * NullPointerException when getting the root of an empty tree.
+     */
+    @Test
+    public void testGetRoot_NullPointerException()
+    {
+        try
+        {
+            tree.getRoot();
+            fail( "Failed to throw NullPointerException." );
+        }
+        catch( NullPointerException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.ConcurrentBSTree#search(java.lang.Comparable)}
+     * to return a detached copy of the node found.
+     */
+    @Test
+    public void testSearch_Detached()
+    {
+        tree.add( 22 );
+        tree.add( 11 );
+        BSTreeNode<Integer> node = tree.search( 22 );
+        assertEquals( "Failed to return the correct element.", 22, (int) node.getElement() );
+        assertNull( "Returned node should be detached.", node.getLeft() );
+        assertNull( "Failed to return null.", tree.search( 33 ) );
+    }
+
+    /**
+     * Test method for {@link implementations.ConcurrentBSTree#removeMin()} and
+     * {@link implementations.ConcurrentBSTree#removeMax()} to remove elements in
+     * order.
+     */
+    @Test
+    public void testRemoveMinMax()
+    {
+        int[] values = { 50, 20, 80, 10, 30, 70, 90, 60, 40 };
+        for( int value : values )
+        {
+            tree.add( value );
+        }
+
+        assertEquals( "Failed to return minimum value.", 10, (int) tree.removeMin().getElement() );
+        assertEquals( "Failed to return maximum value.", 90, (int) tree.removeMax().getElement() );
+        assertEquals( "Failed to return minimum value.", 20, (int) tree.removeMin().getElement() );
+        assertEquals( "Failed to return maximum value.", 80, (int) tree.removeMax().getElement() );
+        assertEquals( "Failed to update size.", 5, tree.size() );
+        assertOrder( "In-order iterator is out of order ", new int[] { 30, 40, 50, 60, 70 },
+                tree.inorderIterator() );
+    }
+
+    /**
+     * Test method for {@link implementations.ConcurrentBSTree#remove(java.lang.Comparable)}
+     * and {@link implementations.ConcurrentBSTree#removeAll(utilities.Iterator)} to
+     * remove single elements and sorted batches.
+     */
+    @Test
+    public void testRemove()
+    {
+        for( int i = 0; i < 200; i++ )
+        {
+            tree.add( i * 7 % 200 );
+        }
+
+        assertEquals( "Failed to return the removed element.", 100, (int) tree.remove( 100 ).getElement() );
+        assertNull( "Failed to return null.", tree.remove( 100 ) );
+        assertFalse( "Failed to remove element.", tree.contains( 100 ) );
+
+        ConcurrentBSTree<Integer> batch = new ConcurrentBSTree<Integer>();
+        for( int i = 0; i < 300; i += 3 )
+        {
+            batch.add( i );
+        }
+        assertEquals( "Failed to remove the batch.", 67, tree.removeAll( batch.inorderIterator() ) );
+        assertEquals( "Failed to update size.", 132, tree.size() );
+        assertEquals( "Failed to return minimum value.", 1, (int) tree.removeMin().getElement() );
+        assertEquals( "Failed to return maximum value.", 199, (int) tree.removeMax().getElement() );
+    }
+
+    /**
+     * Test method for the in-order, pre-order, post-order and level-order
+     * iterators of {@link implementations.ConcurrentBSTree}.
+     */
+    @Test
+    public void testIterators()
+    {
+        tree.add( 22 );
+        tree.add( 11 );
+        tree.add( 33 );
+        tree.add( 44 );
+
+        assertOrder( "In-order iterator is out of order ", new int[] { 11, 22, 33, 44 }, tree.inorderIterator() );
+        assertOrder( "Preorder iterator is out of order ", new int[] { 22, 11, 33, 44 }, tree.preorderIterator() );
+        assertOrder( "Postorder iterator is out of order ", new int[] { 11, 44, 33, 22 }, tree.postorderIterator() );
+        assertOrder( "Level-order iterator is out of order ", new int[] { 22, 11, 33, 44 },
+                tree.levelorderIterator() );
+        assertOrder( "Failed to stop at the maximum depth.", new int[] { 22, 11, 33 }, tree.levelorderIterator( 2 ) );
+        assertOrder( "Depth 0 should return nothing.", new int[] {}, tree.levelorderIterator( 0 ) );
+    }
+
+    /**
+     * Test method for {@link implementations.ConcurrentBSTree#inorderIterator()} to
+     * iterate over a snapshot that later changes do not affect.
+     */
+    @Test
+    public void testIterator_Snapshot()
+    {
+        tree.add( 22 );
+        tree.add( 11 );
+        Iterator<Integer> it = tree.inorderIterator();
+        tree.add( 33 );
+        tree.removeMin();
+        assertOrder( "Snapshot should not change.", new int[] { 11, 22 }, it );
+    }
+
+    /**
+     * Test method for
+     * {@link implementations.ConcurrentBSTree#computeIfAbsent(java.lang.Comparable, java.util.function.Supplier)}
+     * to return the stored element or create a new one.
+     */
+    @Test
+    public void testComputeIfAbsent()
+    {
+        tree.add( 22 );
+        assertEquals( "Failed to return the stored element.", 22,
+                (int) tree.computeIfAbsent( 22, () -> { throw new AssertionError( "Factory called" ); } ) );
+        assertEquals( "Failed to return the created element.", 33, (int) tree.computeIfAbsent( 33, () -> 33 ) );
+        assertEquals( "Failed to return the added element.", 11, (int) tree.getOrAdd( 11 ) );
+        assertEquals( "Failed to update size correctly.", 3, tree.size() );
+    }
+
+    /**
+     * Test method for {@link implementations.ConcurrentBSTree#getOrAdd(java.lang.Comparable)}
+     * with several threads adding the same keys in different orders. Every thread
+     * must get back the one instance stored in the tree for each key.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testGetOrAdd_Concurrent() throws Exception
+    {
+        final int keys = 20000;
+        final ConcurrentBSTree<String> words = new ConcurrentBSTree<String>();
+        final String[][] results = new String[THREADS][keys];
+        final CountDownLatch start = new CountDownLatch( 1 );
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        Thread[] threads = new Thread[THREADS];
+        for( int t = 0; t < THREADS; t++ )
+        {
+            final int thread = t;
+            final List<Integer> order = shuffled( keys, t );
+            threads[t] = new Thread( () -> {
+                try
+                {
+                    start.await();
+                    for( int key : order )
+                    {
+                        results[thread][key] = words.getOrAdd( new String( key( key ) ) );
+                    }
+                }
+                catch( Throwable e )
+                {
+                    failure.compareAndSet( null, e );
+                }
+            } );
+            threads[t].start();
+        }
+        start.countDown();
+        for( Thread thread : threads )
+        {
+            thread.join();
+        }
+
+        assertNull( "Worker thread failed: " + failure.get(), failure.get() );
+        assertEquals( "Failed to add each key once.", keys, words.size() );
+        Iterator<String> it = words.inorderIterator();
+        for( int key = 0; key < keys; key++ )
+        {
+            String stored = it.next();
+            assertEquals( "In-order iterator is out of order ", key( key ), stored );
+            for( int t = 0; t < THREADS; t++ )
+            {
+                assertSame( "Threads got different instances for one key.", stored, results[t][key] );
+            }
+        }
+        assertFalse( "Iterator returned too many elements.", it.hasNext() );
+    }
+
+    /**
+     * Test method for {@link implementations.ConcurrentBSTree} with threads adding
+     * disjoint ranges of keys while other threads remove the smallest elements
+     * and others search for keys that are never removed. No element may be lost
+     * or removed twice, and no search may miss while removals relink nodes.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testAddRemove_Concurrent() throws Exception
+    {
+        final int adders = THREADS / 2;
+        final int removers = 2;
+        final int readers = 2;
+        final int keys = 40000;
+        final int removals = 5000; // Per remover
+        final int searched = 1000000; // Keys from here up are searched for and never removed
+        final List<List<Integer>> removed = new ArrayList<List<Integer>>();
+        final CountDownLatch start = new CountDownLatch( 1 );
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        // Keys between the added ones and the searched ones are always left for
+        // removeMin to take first, however far the adders have got
+        for( int key : shuffled( removers * removals, 1 ) )
+        {
+            tree.add( keys + key );
+        }
+        for( int key : shuffled( 1000, 2 ) )
+        {
+            tree.add( searched + key );
+        }
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for( int t = 0; t < adders; t++ )
+        {
+            final int thread = t;
+            threads.add( new Thread( () -> {
+                try
+                {
+                    start.await();
+                    for( int key : shuffled( keys, thread ) )
+                    {
+                        if( key % adders == thread )
+                        {
+                            assertTrue( "Failed to add element.", tree.add( key ) );
+                        }
+                    }
+                }
+                catch( Throwable e )
+                {
+                    failure.compareAndSet( null, e );
+                }
+            } ) );
+        }
+        for( int t = 0; t < removers; t++ )
+        {
+            final List<Integer> mine = new ArrayList<Integer>();
+            removed.add( mine );
+            threads.add( new Thread( () -> {
+                try
+                {
+                    start.await();
+                    while( mine.size() < removals && failure.get() == null )
+                    {
+                        BSTreeNode<Integer> node = tree.removeMin();
+                        if( node != null )
+                        {
+                            mine.add( node.getElement() );
+                        }
+                        else
+                        {
+                            Thread.yield();
+                        }
+                    }
+                }
+                catch( Throwable e )
+                {
+                    failure.compareAndSet( null, e );
+                }
+            } ) );
+        }
+        List<Thread> searchers = new ArrayList<Thread>();
+        final int[] searches = new int[readers];
+        for( int t = 0; t < readers; t++ )
+        {
+            final int thread = t;
+            searchers.add( new Thread( () -> {
+                try
+                {
+                    start.await();
+                    while( !done.get() && failure.get() == null )
+                    {
+                        for( int key : shuffled( 1000, thread ) )
+                        {
+                            assertTrue( "Search missed an element.", tree.contains( searched + key ) );
+                        }
+                        searches[thread]++;
+                    }
+                }
+                catch( Throwable e )
+                {
+                    failure.compareAndSet( null, e );
+                }
+            } ) );
+        }
+        for( Thread thread : searchers )
+        {
+            thread.start();
+        }
+        for( Thread thread : threads )
+        {
+            thread.start();
+        }
+        start.countDown();
+        for( Thread thread : threads )
+        {
+            thread.join();
+        }
+        done.set( true );
+        for( Thread thread : searchers )
+        {
+            thread.join();
+        }
+
+        assertNull( "Worker thread failed: " + failure.get(), failure.get() );
+        for( int t = 0; t < readers; t++ )
+        {
+            assertTrue( "Searcher thread did not run.", searches[t] > 0 );
+        }
+        int total = keys + removers * removals + 1000;
+        assertEquals( "Failed to update size.", total - removers * removals, tree.size() );
+        TreeSet<Integer> all = new TreeSet<Integer>();
+        for( List<Integer> mine : removed )
+        {
+            all.addAll( mine );
+        }
+        assertEquals( "Element removed twice.", removers * removals, all.size() );
+        assertTrue( "Searched element removed.", all.last() < searched );
+        Iterator<Integer> it = tree.inorderIterator();
+        int previous = -1;
+        while( it.hasNext() )
+        {
+            int element = it.next();
+            assertTrue( "In-order iterator is out of order ", element > previous );
+            assertTrue( "Element removed but still in the tree.", all.add( element ) );
+            previous = element;
+        }
+        assertEquals( "Element lost.", total, all.size() );
+    }
+
+    /**
+     * Test method for serializing a {@link implementations.ConcurrentBSTree} to save
+     * its elements and restore them in a balanced tree.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSerialization_RoundTrip() throws Exception
+    {
+        for( int i = 0; i < 200; i++ )
+        {
+            tree.add( i );
+        }
+        assertEquals( "Sorted insertion should leave a chain.", 200, tree.getHeight() );
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream( bytes );
+        out.writeObject( tree );
+        out.close();
+        ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) );
+        @SuppressWarnings( "unchecked" )
+        ConcurrentBSTree<Integer> restored = (ConcurrentBSTree<Integer>) in.readObject();
+        in.close();
+
+        assertEquals( "Failed to restore size.", 200, restored.size() );
+        assertEquals( "Failed to rebuild a balanced tree.", 8, restored.getHeight() );
+        Iterator<Integer> it = restored.inorderIterator();
+        for( int i = 0; i < 200; i++ )
+        {
+            assertEquals( "Failed to restore elements in order.", i, (int) it.next() );
+        }
+        assertTrue( "Restored tree should accept new elements.", restored.add( 200 ) );
+        assertEquals( "Failed to return maximum value.", 200, (int) restored.removeMax().getElement() );
+    }
+
+    /**
+     * Creates the numbers from 0 up to a limit in a shuffled order.
+     *
+     * @param count the number of numbers
+     * @param seed the seed for the shuffle
+     * @return the shuffled numbers
+     */
+    private static List<Integer> shuffled( int count, long seed )
+    {
+        List<Integer> numbers = new ArrayList<Integer>( count );
+        for( int i = 0; i < count; i++ )
+        {
+            numbers.add( i );
+        }
+        Collections.shuffle( numbers, new Random( seed ) );
+        return numbers;
+    }
+
+    /**
+     * Formats a number as a string key that sorts in numeric order.
+     *
+     * @param number the number
+     * @return the key
+     */
+    private static String key( int number )
+    {
+        return String.format( "%05d", number );
+    }
+
+    /**
+     * Checks that an iterator returns exactly the expected elements in order.
+     *
+     * @param message the failure message
+     * @param expected the expected elements
+     * @param it the iterator to check
+     */
+    private void assertOrder( String message, int[] expected, Iterator<Integer> it )
+    {
+        for( int value : expected )
+        {
+            assertTrue( message, it.hasNext() );
+            assertEquals( message, value, (int) it.next() );
+        }
+        assertFalse( message, it.hasNext() );
+    }
+}
@@ -0,0 +1,327 @@
+package tests.unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import implementations.IntBSTree;
+
+/**
+ * Class Description: Unit tests for the self-balancing tree of primitive
+ * int keys.
+ */
+public class IntBSTreeTest {
+    // Attributes
+    private IntBSTree tree;
+
+    /**
+     * Initializes a new IntBSTree instance before each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        tree = new IntBSTree();
+    }
+
+    /**
+     * Cleans up instances used after each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        tree = null;
+    }
+
+    /**
+     * Test method for {@link implementations.IntBSTree#IntBSTree()} for
+     * creating an empty tree.
+     */
+    @Test
+    public void testConstructor()
+    {
+        assertEquals( "Failed to return correct size.", 0, tree.size() );
+        assertEquals( "Height of tree should be ", 0, tree.getHeight() );
+        assertTrue( "Failed to return true.", tree.isEmpty() );
+        assertFalse( "Failed to return false.", tree.contains( 0 ) );
+    }
+
+    /**
+     * Test method for {@link implementations.IntBSTree#add(int)} to keep the
+     * tree balanced while growing past its initial capacity.
+     */
+    @Test
+    public void testAdd_SortedGrowsBalanced()
+    {
+        for( int i = 0; i < 1023; i++ )
+        {
+            assertTrue( "Failed to add key.", tree.add( i ) );
+        }
+        assertFalse( "Duplicate should not be added.", tree.add( 500 ) );
+
+        assertEquals( "Failed to update size correctly.", 1023, tree.size() );
+        assertEquals( "Failed to keep the tree balanced.", 10, tree.getHeight() );
+        assertTrue( "Failed to return true.", tree.contains( 1022 ) );
+        assertFalse( "Failed to return false.", tree.contains( 1023 ) );
+        assertEquals( "Failed to return the root key.", 511, tree.getRoot() );
+    }
+
+    /**
+     * Test method for {@link implementations.IntBSTree#removeMin()} and
+     * {@link implementations.IntBSTree#removeMax()} to throw
+     * NoSuchElementException on an empty tree.
+     */
+    @Test
+    public void testRemoveMinMax_NoSuchElementException()
+    {
+        try
+        {
+            tree.removeMin();
+            fail( "Failed to throw NoSuchElementException." );
+        }
+        catch( NoSuchElementException e )
+        {
+            assertTrue( true );
+        }
+        try
+        {
+            tree.removeMax();
+            fail( "Failed to throw NoSuchElementException." );
+        }
+        catch( NoSuchElementException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.IntBSTree#remove(int)},
+     * {@link implementations.IntBSTree#removeMin()} and
+     * {@link implementations.IntBSTree#removeMax()} to remove keys, including
+     * negative ones, and reuse the freed slots.
+     */
+    @Test
+    public void testRemove()
+    {
+        for( int i = -100; i < 100; i++ )
+        {
+            tree.add( i );
+        }
+
+        assertTrue( "Failed to remove key.", tree.remove( 0 ) );
+        assertFalse( "Failed to return false.", tree.remove( 0 ) );
+        assertEquals( "Failed to return minimum value.", -100, tree.removeMin() );
+        assertEquals( "Failed to return maximum value.", 99, tree.removeMax() );
+        assertEquals( "Failed to update size.", 197, tree.size() );
+
+        tree.add( 1000 );
+        assertEquals( "Failed to return maximum value.", 1000, tree.removeMax() );
+        assertTrue( "Failed to keep the tree balanced.", tree.getHeight() <= 9 );
+    }
+
+    /**
+     * Test method for the in-order, pre-order and post-order iterators of
+     * {@link implementations.IntBSTree}.
+     */
+    @Test
+    public void testIterators()
+    {
+        tree.add( 44 );
+        tree.add( 22 );
+        tree.add( 66 );
+        tree.add( 11 );
+        tree.add( 55 );
+        tree.add( 33 );
+        tree.add( 77 );
+
+        assertOrder( "In-order iterator is out of order ", new int[] { 11, 22, 33, 44, 55, 66, 77 },
+                tree.inorderIterator() );
+        assertOrder( "Preorder iterator is out of order ", new int[] { 44, 22, 11, 33, 66, 55, 77 },
+                tree.preorderIterator() );
+        assertOrder( "Postorder iterator is out of order ", new int[] { 11, 33, 22, 55, 77, 66, 44 },
+                tree.postorderIterator() );
+    }
+
+    /**
+     * Test method for {@link implementations.IntBSTree#levelorderIterator()}
+     * and {@link implementations.IntBSTree#levelorderIterator(int)} to return
+     * the keys level by level, stopping at the maximum depth.
+     */
+    @Test
+    public void testLevelorderIterator()
+    {
+        for( int i = 1; i <= 7; i++ )
+        {
+            tree.add( i * 11 );
+        }
+
+        assertOrder( "Level-order iterator is out of order ", new int[] { 44, 22, 66, 11, 33, 55, 77 },
+                tree.levelorderIterator() );
+        assertOrder( "Failed to stop at the maximum depth.", new int[] { 44, 22, 66 },
+                tree.levelorderIterator( 2 ) );
+        assertOrder( "Depth 0 should return nothing.", new int[] {}, tree.levelorderIterator( 0 ) );
+    }
+
+    /**
+     * Test method for {@link implementations.IntBSTree#removeAll(PrimitiveIterator.OfInt)}
+     * to remove a small batch one key at a time and a large batch in a single
+     * pass, skipping repeated and missing keys.
+     */
+    @Test
+    public void testRemoveAll()
+    {
+        for( int i = 0; i < 1000; i++ )
+        {
+            tree.add( i );
+        }
+
+        assertEquals( "Failed to return the number removed.", 2,
+                tree.removeAll( Arrays.stream( new int[] { 5, 5, 500, 5000 } ).iterator() ) );
+        assertFalse( "Failed to remove key.", tree.contains( 500 ) );
+        assertEquals( "Failed to update size.", 998, tree.size() );
+
+        int[] evens = new int[600];
+        for( int i = 0; i < evens.length; i++ )
+        {
+            evens[i] = 2 * i;
+        }
+        assertEquals( "Failed to return the number removed.", 499, tree.removeAll( Arrays.stream( evens ).iterator() ) );
+        assertEquals( "Failed to update size.", 499, tree.size() );
+        assertEquals( "Failed to rebuild a balanced tree.", 9, tree.getHeight() );
+        PrimitiveIterator.OfInt it = tree.inorderIterator();
+        for( int i = 1; i < 1000; i += 2 )
+        {
+            if( i != 5 )
+            {
+                assertEquals( "Failed to keep the remaining keys in order.", i, it.nextInt() );
+            }
+        }
+        assertFalse( "Failed to keep the remaining keys in order.", it.hasNext() );
+        assertTrue( "Rebuilt tree should accept new keys.", tree.add( 2000 ) );
+        assertEquals( "Failed to return maximum value.", 2000, tree.removeMax() );
+
+        try
+        {
+            tree.removeAll( Arrays.stream( new int[] { 3, 1 } ).iterator() );
+            fail( "Failed to throw IllegalArgumentException." );
+        }
+        catch( IllegalArgumentException e )
+        {
+            assertTrue( "Failed to leave the tree unchanged.", tree.contains( 3 ) );
+        }
+    }
+
+    /**
+     * Test method for the iterators of {@link implementations.IntBSTree}
+     * to fail fast once the tree is added to or removed from, but not when
+     * adding a key that is already in the tree.
+     */
+    @Test
+    public void testIterators_FailFast()
+    {
+        for( int i = 0; i < 50; i++ )
+        {
+            tree.add( i );
+        }
+
+        PrimitiveIterator.OfInt inorder = tree.inorderIterator();
+        assertEquals( "In-order iterator is out of order ", 0, inorder.nextInt() );
+        assertFalse( "Failed to return false.", tree.add( 20 ) ); // Already in the tree - not a change
+        assertEquals( "In-order iterator is out of order ", 1, inorder.nextInt() );
+
+        PrimitiveIterator.OfInt preorder = tree.preorderIterator();
+        PrimitiveIterator.OfInt postorder = tree.postorderIterator();
+        PrimitiveIterator.OfInt levelorder = tree.levelorderIterator();
+        assertTrue( "Failed to add key.", tree.add( 50 ) );
+        PrimitiveIterator.OfInt[] iterators = { inorder, preorder, postorder, levelorder };
+        for( PrimitiveIterator.OfInt it : iterators )
+        {
+            try
+            {
+                it.nextInt();
+                fail( "Failed to throw ConcurrentModificationException." );
+            }
+            catch( ConcurrentModificationException e )
+            {
+                assertTrue( true );
+            }
+        }
+
+        PrimitiveIterator.OfInt after = tree.inorderIterator();
+        tree.remove( 25 );
+        try
+        {
+            after.nextInt();
+            fail( "Failed to throw ConcurrentModificationException." );
+        }
+        catch( ConcurrentModificationException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for serializing an {@link implementations.IntBSTree} to save
+     * its keys and restore them.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSerialization_RoundTrip() throws Exception
+    {
+        for( int i = 0; i < 200; i++ )
+        {
+            tree.add( i );
+        }
+        tree.removeMin();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream( bytes );
+        out.writeObject( tree );
+        out.close();
+        ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) );
+        IntBSTree restored = (IntBSTree) in.readObject();
+        in.close();
+
+        assertEquals( "Failed to restore size.", 199, restored.size() );
+        assertEquals( "Failed to rebuild a balanced tree.", 8, restored.getHeight() );
+        PrimitiveIterator.OfInt it = restored.inorderIterator();
+        for( int i = 1; i < 200; i++ )
+        {
+            assertEquals( "Failed to restore keys in order.", i, it.nextInt() );
+        }
+        assertTrue( "Restored tree should accept new keys.", restored.add( 0 ) );
+        assertEquals( "Failed to return minimum value.", 0, restored.removeMin() );
+    }
+
+    /**
+     * Checks that an iterator returns exactly the expected keys in order.
+     *
+     * @param message the failure message
+     * @param expected the expected keys
+     * @param it the iterator to check
+     */
+    private void assertOrder( String message, int[] expected, PrimitiveIterator.OfInt it )
+    {
+        for( int value : expected )
+        {
+            assertTrue( message, it.hasNext() );
+            assertEquals( message, value, it.nextInt() );
+        }
+        assertFalse( message, it.hasNext() );
+    }
+}
@@ -0,0 +1,327 @@
+package tests.unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import implementations.LongBSTree;
+
+/**
+ * Class Description: Unit tests for the self-balancing tree of primitive
+ * long keys.
+ */
+public class LongBSTreeTest {
+    // Attributes
+    private LongBSTree tree;
+
+    /**
+     * Initializes a new LongBSTree instance before each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        tree = new LongBSTree();
+    }
+
+    /**
+     * Cleans up instances used after each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        tree = null;
+    }
+
+    /**
+     * Test method for {@link implementations.LongBSTree#LongBSTree()} for
+     * creating an empty tree.
+     */
+    @Test
+    public void testConstructor()
+    {
+        assertEquals( "Failed to return correct size.", 0, tree.size() );
+        assertEquals( "Height of tree should be ", 0, tree.getHeight() );
+        assertTrue( "Failed to return true.", tree.isEmpty() );
+        assertFalse( "Failed to return false.", tree.contains( 0 ) );
+    }
+
+    /**
+     * Test method for {@link implementations.LongBSTree#add(long)} to keep the
+     * tree balanced while growing past its initial capacity.
+     */
+    @Test
+    public void testAdd_SortedGrowsBalanced()
+    {
+        for( long i = 0; i < 1023; i++ )
+        {
+            assertTrue( "Failed to add key.", tree.add( i ) );
+        }
+        assertFalse( "Duplicate should not be added.", tree.add( 500L ) );
+
+        assertEquals( "Failed to update size correctly.", 1023, tree.size() );
+        assertEquals( "Failed to keep the tree balanced.", 10, tree.getHeight() );
+        assertTrue( "Failed to return true.", tree.contains( 1022L ) );
+        assertFalse( "Failed to return false.", tree.contains( 1023L ) );
+        assertEquals( "Failed to return the root key.", 511L, tree.getRoot() );
+    }
+
+    /**
+     * Test method for {@link implementations.LongBSTree#removeMin()} and
+     * {@link implementations.LongBSTree#removeMax()} to throw
+     * NoSuchElementException on an empty tree.
+     */
+    @Test
+    public void testRemoveMinMax_NoSuchElementException()
+    {
+        try
+        {
+            tree.removeMin();
+            fail( "Failed to throw NoSuchElementException." );
+        }
+        catch( NoSuchElementException e )
+        {
+            assertTrue( true );
+        }
+        try
+        {
+            tree.removeMax();
+            fail( "Failed to throw NoSuchElementException." );
+        }
+        catch( NoSuchElementException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.LongBSTree#remove(long)},
+     * {@link implementations.LongBSTree#removeMin()} and
+     * {@link implementations.LongBSTree#removeMax()} to remove keys, including
+     * negative ones, and reuse the freed slots.
+     */
+    @Test
+    public void testRemove()
+    {
+        for( long i = -100; i < 100; i++ )
+        {
+            tree.add( i );
+        }
+
+        assertTrue( "Failed to remove key.", tree.remove( 0L ) );
+        assertFalse( "Failed to return false.", tree.remove( 0L ) );
+        assertEquals( "Failed to return minimum value.", -100L, tree.removeMin() );
+        assertEquals( "Failed to return maximum value.", 99L, tree.removeMax() );
+        assertEquals( "Failed to update size.", 197, tree.size() );
+
+        tree.add( 1000L );
+        assertEquals( "Failed to return maximum value.", 1000L, tree.removeMax() );
+        assertTrue( "Failed to keep the tree balanced.", tree.getHeight() <= 9 );
+    }
+
+    /**
+     * Test method for the in-order, pre-order and post-order iterators of
+     * {@link implementations.LongBSTree}.
+     */
+    @Test
+    public void testIterators()
+    {
+        tree.add( 44L );
+        tree.add( 22L );
+        tree.add( 66L );
+        tree.add( 11L );
+        tree.add( 55L );
+        tree.add( 33L );
+        tree.add( 77L );
+
+        assertOrder( "In-order iterator is out of order ", new long[] { 11, 22, 33, 44, 55, 66, 77 },
+                tree.inorderIterator() );
+        assertOrder( "Preorder iterator is out of order ", new long[] { 44, 22, 11, 33, 66, 55, 77 },
+                tree.preorderIterator() );
+        assertOrder( "Postorder iterator is out of order ", new long[] { 11, 33, 22, 55, 77, 66, 44 },
+                tree.postorderIterator() );
+    }
+
+    /**
+     * Test method for {@link implementations.LongBSTree#levelorderIterator()}
+     * and {@link implementations.LongBSTree#levelorderIterator(int)} to return
+     * the keys level by level, stopping at the maximum depth.
+     */
+    @Test
+    public void testLevelorderIterator()
+    {
+        for( long i = 1; i <= 7; i++ )
+        {
+            tree.add( i * 11 );
+        }
+
+        assertOrder( "Level-order iterator is out of order ", new long[] { 44, 22, 66, 11, 33, 55, 77 },
+                tree.levelorderIterator() );
+        assertOrder( "Failed to stop at the maximum depth.", new long[] { 44, 22, 66 },
+                tree.levelorderIterator( 2 ) );
+        assertOrder( "Depth 0 should return nothing.", new long[] {}, tree.levelorderIterator( 0 ) );
+    }
+
+    /**
+     * Test method for {@link implementations.LongBSTree#removeAll(PrimitiveIterator.OfLong)}
+     * to remove a small batch one key at a time and a large batch in a single
+     * pass, skipping repeated and missing keys.
+     */
+    @Test
+    public void testRemoveAll()
+    {
+        for( int i = 0; i < 1000; i++ )
+        {
+            tree.add( i );
+        }
+
+        assertEquals( "Failed to return the number removed.", 2,
+                tree.removeAll( Arrays.stream( new long[] { 5, 5, 500, 5000 } ).iterator() ) );
+        assertFalse( "Failed to remove key.", tree.contains( 500 ) );
+        assertEquals( "Failed to update size.", 998, tree.size() );
+
+        long[] evens = new long[600];
+        for( int i = 0; i < evens.length; i++ )
+        {
+            evens[i] = 2 * i;
+        }
+        assertEquals( "Failed to return the number removed.", 499, tree.removeAll( Arrays.stream( evens ).iterator() ) );
+        assertEquals( "Failed to update size.", 499, tree.size() );
+        assertEquals( "Failed to rebuild a balanced tree.", 9, tree.getHeight() );
+        PrimitiveIterator.OfLong it = tree.inorderIterator();
+        for( int i = 1; i < 1000; i += 2 )
+        {
+            if( i != 5 )
+            {
+                assertEquals( "Failed to keep the remaining keys in order.", i, it.nextLong() );
+            }
+        }
+        assertFalse( "Failed to keep the remaining keys in order.", it.hasNext() );
+        assertTrue( "Rebuilt tree should accept new keys.", tree.add( 2000 ) );
+        assertEquals( "Failed to return maximum value.", 2000, tree.removeMax() );
+
+        try
+        {
+            tree.removeAll( Arrays.stream( new long[] { 3, 1 } ).iterator() );
+            fail( "Failed to throw IllegalArgumentException." );
+        }
+        catch( IllegalArgumentException e )
+        {
+            assertTrue( "Failed to leave the tree unchanged.", tree.contains( 3 ) );
+        }
+    }
+
+    /**
+     * Test method for the iterators of {@link implementations.LongBSTree}
+     * to fail fast once the tree is added to or removed from, but not when
+     * adding a key that is already in the tree.
+     */
+    @Test
+    public void testIterators_FailFast()
+    {
+        for( int i = 0; i < 50; i++ )
+        {
+            tree.add( i );
+        }
+
+        PrimitiveIterator.OfLong inorder = tree.inorderIterator();
+        assertEquals( "In-order iterator is out of order ", 0, inorder.nextLong() );
+        assertFalse( "Failed to return false.", tree.add( 20 ) ); // Already in the tree - not a change
+        assertEquals( "In-order iterator is out of order ", 1, inorder.nextLong() );
+
+        PrimitiveIterator.OfLong preorder = tree.preorderIterator();
+        PrimitiveIterator.OfLong postorder = tree.postorderIterator();
+        PrimitiveIterator.OfLong levelorder = tree.levelorderIterator();
+        assertTrue( "Failed to add key.", tree.add( 50 ) );
+        PrimitiveIterator.OfLong[] iterators = { inorder, preorder, postorder, levelorder };
+        for( PrimitiveIterator.OfLong it : iterators )
+        {
+            try
+            {
+                it.nextLong();
+                fail( "Failed to throw ConcurrentModificationException." );
+            }
+            catch( ConcurrentModificationException e )
+            {
+                assertTrue( true );
+            }
+        }
+
+        PrimitiveIterator.OfLong after = tree.inorderIterator();
+        tree.remove( 25 );
+        try
+        {
+            after.nextLong();
+            fail( "Failed to throw ConcurrentModificationException." );
+        }
+        catch( ConcurrentModificationException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for serializing an {@link implementations.LongBSTree} to save
+     * its keys and restore them.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSerialization_RoundTrip() throws Exception
+    {
+        for( long i = 0; i < 200; i++ )
+        {
+            tree.add( i );
+        }
+        tree.removeMin();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream( bytes );
+        out.writeObject( tree );
+        out.close();
+        ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) );
+        LongBSTree restored = (LongBSTree) in.readObject();
+        in.close();
+
+        assertEquals( "Failed to restore size.", 199, restored.size() );
+        assertEquals( "Failed to rebuild a balanced tree.", 8, restored.getHeight() );
+        PrimitiveIterator.OfLong it = restored.inorderIterator();
+        for( long i = 1; i < 200; i++ )
+        {
+            assertEquals( "Failed to restore keys in order.", i, it.nextLong() );
+        }
+        assertTrue( "Restored tree should accept new keys.", restored.add( 0L ) );
+        assertEquals( "Failed to return minimum value.", 0L, restored.removeMin() );
+    }
+
+    /**
+     * Checks that an iterator returns exactly the expected keys in order.
+     *
+     * @param message the failure message
+     * @param expected the expected keys
+     * @param it the iterator to check
+     */
+    private void assertOrder( String message, long[] expected, PrimitiveIterator.OfLong it )
+    {
+        for( long value : expected )
+        {
+            assertTrue( message, it.hasNext() );
+            assertEquals( message, value, it.nextLong() );
+        }
+        assertFalse( message, it.hasNext() );
+    }
+}
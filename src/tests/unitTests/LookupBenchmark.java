@@ -0,0 +1,112 @@
+package tests.unitTests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import implementations.ArrayBSTree;
+import implementations.BSTree;
+import implementations.BTree;
+import utilities.BSTreeADT;
+
+/**
+ * Benchmark comparing word lookups across the BSTreeADT implementations.
+ * Each tree is filled with the same random vocabulary in random order, then
+ * timed on searches for words that are present and words that are not.
+ *
+ * Usage: java tests.unitTests.LookupBenchmark [vocabularySize] [lookups]
+ */
+public class LookupBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int vocabularySize = args.length > 0 ? Integer.parseInt(args[0]) : 500000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+
+        System.out.println("=== Word Lookup Benchmark ===");
+        System.out.println("Vocabulary: " + vocabularySize + " words, " + lookups + " lookups per round\n");
+
+        Random random = new Random(42);
+        List<String> vocabulary = randomWords(random, vocabularySize, 3);
+        List<String> misses = randomWords(random, lookups / 10, 11); // Longer than any vocabulary word
+        String[] hits = new String[lookups];
+        for (int i = 0; i < lookups; i++) {
+            hits[i] = vocabulary.get(random.nextInt(vocabularySize));
+        }
+
+        Map<String, Supplier<BSTreeADT<String>>> trees = new LinkedHashMap<String, Supplier<BSTreeADT<String>>>();
+        trees.put("BSTree (plain)", () -> new BSTree<String>());
+        trees.put("BSTree (self-balancing)", () -> new BSTree<String>(true));
+        trees.put("ArrayBSTree", () -> new ArrayBSTree<String>());
+        trees.put("BTree (t = 32)", () -> new BTree<String>());
+
+        System.out.printf("%-26s %8s %12s %12s%n", "Tree", "Height", "Hit ns/op", "Miss ns/op");
+        for (Map.Entry<String, Supplier<BSTreeADT<String>>> entry : trees.entrySet()) {
+            BSTreeADT<String> tree = entry.getValue().get();
+            for (String word : vocabulary) {
+                tree.add(word);
+            }
+
+            double hitTime = measure(tree, hits);
+            double missTime = measure(tree, misses.toArray(new String[0]));
+            System.out.printf("%-26s %8d %12.1f %12.1f%n", entry.getKey(), tree.getHeight(), hitTime, missTime);
+        }
+    }
+
+    /**
+     * Times searches for a list of words, returning the best round
+     * @param tree the tree to search
+     * @param words the words to search for
+     * @return the best average time per search in nanoseconds
+     */
+    private static double measure(BSTreeADT<String> tree, String[] words) {
+        double best = Double.MAX_VALUE;
+        int found = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String word : words) {
+                if (tree.contains(word)) {
+                    found++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.min(best, (double) elapsed / words.length);
+            }
+        }
+        if (found < 0) {
+            System.out.println(found); // Keeps the searches from being optimized away
+        }
+        return best;
+    }
+
+    /**
+     * Generates distinct random lowercase words in random order
+     * @param random the source of randomness
+     * @param count the number of words to generate
+     * @param minLength the length of the shortest word; words are up to 7 letters longer
+     * @return the words
+     */
+    private static List<String> randomWords(Random random, int count, int minLength) {
+        HashSet<String> seen = new HashSet<String>();
+        List<String> words = new ArrayList<String>(count);
+        while (words.size() < count) {
+            int length = minLength + random.nextInt(8);
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            if (seen.add(sb.toString())) {
+                words.add(sb.toString());
+            }
+        }
+        Collections.shuffle(words, random);
+        return words;
+    }
+}
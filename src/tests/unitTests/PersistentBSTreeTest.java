@@ -0,0 +1,317 @@
+package tests.unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import utilities.Iterator;
+
+import implementations.PersistentBSTree;
+
+/**
+ * Class Description: Unit tests for the persistent, path-copying
+ * implementation of the BSTreeADT.
+ */
+public class PersistentBSTreeTest {
+    // Attributes
+    private PersistentBSTree<Integer> tree;
+
+    /**
+     * Initializes a new PersistentBSTree instance before each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        tree = new PersistentBSTree<Integer>();
+    }
+
+    /**
+     * Cleans up instances used after each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        tree = null;
+    }
+
+    /**
+     * Test method for {@link implementations.PersistentBSTree#PersistentBSTree()}
+     * for creating an empty tree.
+     */
+    @Test
+    public void testConstructor()
+    {
+        assertEquals( "Failed to return correct size.", 0, tree.size() );
+        assertEquals( "Height of tree should be ", 0, tree.getHeight() );
+        assertTrue( "Failed to return true.", tree.isEmpty() );
+        assertNull( "Failed to return null.", tree.search( 1 ) );
+        assertNull( "Failed to return null.", tree.removeMin() );
+        assertNull( "Failed to return null.", tree.removeMax() );
+    }
+
+    /**
+     * Test method for {@link implementations.PersistentBSTree#add(java.lang.Comparable)}
+     * to keep the tree balanced when elements are added in sorted order.
+     */
+    @Test
+    public void testAdd_SortedStaysBalanced()
+    {
+        for( int i = 1; i <= 1023; i++ )
+        {
+            assertTrue( "Failed to add element.", tree.add( i ) );
+        }
+        assertFalse( "Duplicate should not be added.", tree.add( 512 ) );
+
+        assertEquals( "Failed to update size correctly.", 1023, tree.size() );
+        assertEquals( "Failed to stay balanced.", 10, tree.getHeight() );
+        assertEquals( "Failed to return the root.", 512, (int) tree.getRoot().getElement() );
+        assertTrue( "Failed to return true.", tree.contains( 1023 ) );
+        assertFalse( "Failed to return false.", tree.contains( 0 ) );
+    }
+
+    /**
+     * Test method for {@link implementations.PersistentBSTree#getRoot()} to throw
+     * NullPointerException when getting the root of an empty tree.
+     */
+    @Test
+    public void testGetRoot_NullPointerException()
+    {
+        try
+        {
+            tree.getRoot();
+            fail( "Failed to throw NullPointerException." );
+        }
+        catch( NullPointerException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.PersistentBSTree#snapshot()} to keep a
+     * frozen version that later changes to either tree do not affect.
+     */
+    @Test
+    public void testSnapshot()
+    {
+        for( int i = 0; i < 100; i++ )
+        {
+            tree.add( i );
+        }
+        PersistentBSTree<Integer> snapshot = tree.snapshot();
+        Iterator<Integer> it = tree.inorderIterator();
+
+        tree.add( 100 );
+        tree.remove( 50 );
+        tree.removeMin();
+        assertEquals( "Failed to update size.", 99, tree.size() );
+        assertEquals( "Snapshot should not change.", 100, snapshot.size() );
+        assertTrue( "Snapshot should not change.", snapshot.contains( 50 ) );
+        assertFalse( "Snapshot should not change.", snapshot.contains( 100 ) );
+
+        for( int i = 0; i < 100; i++ )
+        {
+            assertEquals( "Iterator should not change.", i, (int) it.next() );
+        }
+        assertFalse( "Iterator should not change.", it.hasNext() );
+
+        snapshot.clear();
+        assertTrue( "Failed to return true.", snapshot.isEmpty() );
+        assertEquals( "Tree should not change.", 99, tree.size() );
+    }
+
+    /**
+     * Test method for {@link implementations.PersistentBSTree#snapshot()} with a
+     * thread reading snapshots while the tree is being changed. Every snapshot
+     * must hold a complete, ordered version.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSnapshot_Concurrent() throws Exception
+    {
+        final int keys = 20000;
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread reader = new Thread( () -> {
+            try
+            {
+                int size = 0;
+                while( size < keys )
+                {
+                    PersistentBSTree<Integer> snapshot = tree.snapshot();
+                    size = snapshot.size();
+                    int count = 0;
+                    Iterator<Integer> it = snapshot.inorderIterator();
+                    while( it.hasNext() )
+                    {
+                        assertEquals( "Snapshot is not a complete version.", count++, (int) it.next() );
+                    }
+                    assertEquals( "Snapshot changed while reading.", size, count );
+                }
+            }
+            catch( Throwable e )
+            {
+                failure.compareAndSet( null, e );
+            }
+        } );
+        reader.start();
+        for( int i = 0; i < keys; i++ )
+        {
+            tree.add( i );
+        }
+        reader.join();
+
+        assertNull( "Reader thread failed: " + failure.get(), failure.get() );
+    }
+
+    /**
+     * Test method for {@link implementations.PersistentBSTree#removeMin()} and
+     * {@link implementations.PersistentBSTree#removeMax()} to remove elements in
+     * order.
+     */
+    @Test
+    public void testRemoveMinMax()
+    {
+        int[] values = { 50, 20, 80, 10, 30, 70, 90, 60, 40 };
+        for( int value : values )
+        {
+            tree.add( value );
+        }
+
+        assertEquals( "Failed to return minimum value.", 10, (int) tree.removeMin().getElement() );
+        assertEquals( "Failed to return maximum value.", 90, (int) tree.removeMax().getElement() );
+        assertEquals( "Failed to return minimum value.", 20, (int) tree.removeMin().getElement() );
+        assertEquals( "Failed to return maximum value.", 80, (int) tree.removeMax().getElement() );
+        assertEquals( "Failed to update size.", 5, tree.size() );
+        assertOrder( "In-order iterator is out of order ", new int[] { 30, 40, 50, 60, 70 },
+                tree.inorderIterator() );
+    }
+
+    /**
+     * Test method for {@link implementations.PersistentBSTree#remove(java.lang.Comparable)}
+     * and {@link implementations.PersistentBSTree#removeAll(utilities.Iterator)} to
+     * remove single elements and sorted batches.
+     */
+    @Test
+    public void testRemove()
+    {
+        for( int i = 0; i < 200; i++ )
+        {
+            tree.add( i );
+        }
+
+        assertEquals( "Failed to return the removed element.", 100, (int) tree.remove( 100 ).getElement() );
+        assertNull( "Failed to return null.", tree.remove( 100 ) );
+        assertFalse( "Failed to remove element.", tree.contains( 100 ) );
+
+        PersistentBSTree<Integer> batch = new PersistentBSTree<Integer>();
+        for( int i = 0; i < 300; i += 3 )
+        {
+            batch.add( i );
+        }
+        assertEquals( "Failed to remove the batch.", 67, tree.removeAll( batch.inorderIterator() ) );
+        assertEquals( "Failed to update size.", 132, tree.size() );
+        assertTrue( "Failed to stay balanced.", tree.getHeight() <= 9 );
+        assertEquals( "Failed to return minimum value.", 1, (int) tree.removeMin().getElement() );
+        assertEquals( "Failed to return maximum value.", 199, (int) tree.removeMax().getElement() );
+    }
+
+    /**
+     * Test method for the in-order, pre-order, post-order and level-order
+     * iterators of {@link implementations.PersistentBSTree}.
+     */
+    @Test
+    public void testIterators()
+    {
+        tree.add( 11 );
+        tree.add( 22 );
+        tree.add( 33 ); // Rebalanced to root 22 with children 11 and 33
+
+        assertOrder( "In-order iterator is out of order ", new int[] { 11, 22, 33 }, tree.inorderIterator() );
+        assertOrder( "Preorder iterator is out of order ", new int[] { 22, 11, 33 }, tree.preorderIterator() );
+        assertOrder( "Postorder iterator is out of order ", new int[] { 11, 33, 22 }, tree.postorderIterator() );
+        assertOrder( "Level-order iterator is out of order ", new int[] { 22, 11, 33 },
+                tree.levelorderIterator() );
+        assertOrder( "Failed to stop at the maximum depth.", new int[] { 22 }, tree.levelorderIterator( 1 ) );
+        assertOrder( "Depth 0 should return nothing.", new int[] {}, tree.levelorderIterator( 0 ) );
+    }
+
+    /**
+     * Test method for
+     * {@link implementations.PersistentBSTree#computeIfAbsent(java.lang.Comparable, java.util.function.Supplier)}
+     * to return the stored element or create a new one.
+     */
+    @Test
+    public void testComputeIfAbsent()
+    {
+        tree.add( 22 );
+        assertEquals( "Failed to return the stored element.", 22,
+                (int) tree.computeIfAbsent( 22, () -> { throw new AssertionError( "Factory called" ); } ) );
+        assertEquals( "Failed to return the created element.", 33, (int) tree.computeIfAbsent( 33, () -> 33 ) );
+        assertEquals( "Failed to return the added element.", 11, (int) tree.getOrAdd( 11 ) );
+        assertEquals( "Failed to update size correctly.", 3, tree.size() );
+    }
+
+    /**
+     * Test method for serializing a {@link implementations.PersistentBSTree} to save
+     * its elements and restore them in a balanced tree.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSerialization_RoundTrip() throws Exception
+    {
+        for( int i = 0; i < 200; i++ )
+        {
+            tree.add( i );
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream( bytes );
+        out.writeObject( tree.snapshot() );
+        out.close();
+        ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) );
+        @SuppressWarnings( "unchecked" )
+        PersistentBSTree<Integer> restored = (PersistentBSTree<Integer>) in.readObject();
+        in.close();
+
+        assertEquals( "Failed to restore size.", 200, restored.size() );
+        assertEquals( "Failed to rebuild a balanced tree.", 8, restored.getHeight() );
+        Iterator<Integer> it = restored.inorderIterator();
+        for( int i = 0; i < 200; i++ )
+        {
+            assertEquals( "Failed to restore elements in order.", i, (int) it.next() );
+        }
+        assertTrue( "Restored tree should accept new elements.", restored.add( 200 ) );
+        assertEquals( "Failed to return maximum value.", 200, (int) restored.removeMax().getElement() );
+    }
+
+    /**
+     * Checks that an iterator returns exactly the expected elements in order.
+     *
+     * @param message the failure message
+     * @param expected the expected elements
+     * @param it the iterator to check
+     */
+    private void assertOrder( String message, int[] expected, Iterator<Integer> it )
+    {
+        for( int value : expected )
+        {
+            assertTrue( message, it.hasNext() );
+            assertEquals( message, value, (int) it.next() );
+        }
+        assertFalse( message, it.hasNext() );
+    }
+}
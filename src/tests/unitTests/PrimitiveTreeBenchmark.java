@@ -0,0 +1,217 @@
+package tests.unitTests;
+
+import java.lang.management.ManagementFactory;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import implementations.ArrayBSTree;
+import implementations.BSTree;
+import implementations.IntBSTree;
+import implementations.LongBSTree;
+import utilities.Iterator;
+
+/**
+ * Benchmark comparing the primitive-key trees with boxed-key trees holding the
+ * same numbers. For each phase (adding every key, searching for every key and
+ * iterating over the tree) it reports the time taken and the bytes allocated
+ * by the benchmark thread, which shows the cost of boxing each key.
+ *
+ * Allocation is measured with the per-thread counter of HotSpot-based JVMs;
+ * on other JVMs only the times are reported.
+ *
+ * Usage: java tests.unitTests.PrimitiveTreeBenchmark [keys=1000000]
+ */
+public class PrimitiveTreeBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+        Random random = new Random(42);
+        int[] keys = new int[count];
+        long[] longKeys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextInt();
+            longKeys[i] = random.nextLong();
+        }
+
+        System.out.println("=== Primitive Tree Benchmark ===");
+        System.out.println(count + " random keys" + (THREADS == null ? " (allocation not measured)" : "") + "\n");
+        System.out.printf("%-22s %-8s %10s %14s%n", "Tree", "Phase", "ms", "Bytes/key");
+
+        for (int round = 0; round < 2; round++) { // The first round warms up the JIT
+            boolean print = round == 1;
+            runBoxed("BSTree<Integer> (AVL)", new BSTree<Integer>(true), keys, print);
+            runBoxed("ArrayBSTree<Integer>", new ArrayBSTree<Integer>(), keys, print);
+            runInt("IntBSTree", 0, keys, print);
+            runInt("IntBSTree (presized)", keys.length, keys, print);
+            runLong("LongBSTree", longKeys, print);
+        }
+    }
+
+    /**
+     * Runs the phases on a tree of boxed Integers
+     * @param name the name to report
+     * @param tree an empty tree
+     * @param keys the keys to add and search for
+     * @param print true to report the measurements
+     */
+    private static void runBoxed(String name, utilities.BSTreeADT<Integer> tree, int[] keys, boolean print) {
+        Phase phase = new Phase(name, keys.length, print);
+        for (int key : keys) {
+            tree.add(key);
+        }
+        phase.end("add");
+
+        int found = 0;
+        for (int key : keys) {
+            if (tree.contains(key)) {
+                found++;
+            }
+        }
+        phase.end("contains");
+
+        long sum = 0;
+        Iterator<Integer> it = tree.inorderIterator();
+        while (it.hasNext()) {
+            sum += it.next();
+        }
+        phase.end("iterate");
+        check(found, sum);
+    }
+
+    /**
+     * Runs the phases on an IntBSTree
+     * @param name the name to report
+     * @param initialCapacity the number of keys the tree is created with room for
+     * @param keys the keys to add and search for
+     * @param print true to report the measurements
+     */
+    private static void runInt(String name, int initialCapacity, int[] keys, boolean print) {
+        Phase phase = new Phase(name, keys.length, print);
+        IntBSTree tree = new IntBSTree(initialCapacity); // Counted as part of adding
+        for (int key : keys) {
+            tree.add(key);
+        }
+        phase.end("add");
+
+        int found = 0;
+        for (int key : keys) {
+            if (tree.contains(key)) {
+                found++;
+            }
+        }
+        phase.end("contains");
+
+        long sum = 0;
+        PrimitiveIterator.OfInt it = tree.inorderIterator();
+        while (it.hasNext()) {
+            sum += it.nextInt();
+        }
+        phase.end("iterate");
+        check(found, sum);
+    }
+
+    /**
+     * Runs the phases on a LongBSTree
+     * @param name the name to report
+     * @param keys the keys to add and search for
+     * @param print true to report the measurements
+     */
+    private static void runLong(String name, long[] keys, boolean print) {
+        Phase phase = new Phase(name, keys.length, print);
+        LongBSTree tree = new LongBSTree(0);
+        for (long key : keys) {
+            tree.add(key);
+        }
+        phase.end("add");
+
+        int found = 0;
+        for (long key : keys) {
+            if (tree.contains(key)) {
+                found++;
+            }
+        }
+        phase.end("contains");
+
+        long sum = 0;
+        PrimitiveIterator.OfLong it = tree.inorderIterator();
+        while (it.hasNext()) {
+            sum += it.nextLong();
+        }
+        phase.end("iterate");
+        check(found, sum);
+    }
+
+    /**
+     * Keeps the results from being optimized away
+     * @param found the number of keys found
+     * @param sum the sum of the keys iterated over
+     */
+    private static void check(int found, long sum) {
+        if (found < 0 || sum == 42) {
+            System.out.println(found + " " + sum);
+        }
+    }
+
+    /**
+     * Gets the HotSpot thread bean with allocation counting enabled
+     * @return the thread bean, or null if allocation cannot be measured
+     */
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            com.sun.management.ThreadMXBean bean =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+                return bean;
+            }
+        } catch (ClassCastException | UnsupportedOperationException | LinkageError e) {
+            // Not a HotSpot-based JVM
+        }
+        return null;
+    }
+
+    /**
+     * Measures the time and allocation of consecutive phases
+     */
+    private static class Phase {
+        private final String name;
+        private final int keys;
+        private final boolean print;
+        private long startTime;
+        private long startBytes;
+
+        public Phase(String name, int keys, boolean print) {
+            this.name = name;
+            this.keys = keys;
+            this.print = print;
+            System.gc();
+            this.startBytes = allocatedBytes();
+            this.startTime = System.nanoTime();
+        }
+
+        /**
+         * Reports the phase that just ended and starts the next one
+         * @param phase the name of the phase that ended
+         */
+        public void end(String phase) {
+            long time = System.nanoTime() - startTime;
+            long bytes = allocatedBytes() - startBytes;
+            if (print) {
+                System.out.printf("%-22s %-8s %10.1f %14s%n", name, phase, time / 1e6,
+                        THREADS == null ? "n/a" : String.format("%.1f", (double) bytes / keys));
+            }
+            startBytes = allocatedBytes();
+            startTime = System.nanoTime();
+        }
+
+        /**
+         * Gets the number of bytes allocated so far by the current thread
+         * @return the bytes allocated, or 0 if allocation cannot be measured
+         */
+        private static long allocatedBytes() {
+            return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
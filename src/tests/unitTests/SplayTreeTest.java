@@ -0,0 +1,343 @@
+package tests.unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ConcurrentModificationException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import utilities.Iterator;
+
+import implementations.SplayTree;
+
+/**
+ * Class Description: Unit tests for the self-adjusting splay tree
+ * implementation of the BSTreeADT.
+ */
+public class SplayTreeTest {
+    // Attributes
+    private SplayTree<Integer> tree;
+
+    /**
+     * Initializes a new SplayTree instance before each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        tree = new SplayTree<Integer>();
+    }
+
+    /**
+     * Cleans up instances used after each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        tree = null;
+    }
+
+    /**
+     * Test method for {@link implementations.SplayTree#SplayTree()} for creating
+     * an empty tree.
+     */
+    @Test
+    public void testConstructor()
+    {
+        assertEquals( "Failed to return correct size.", 0, tree.size() );
+        assertEquals( "Height of tree should be ", 0, tree.getHeight() );
+        assertTrue( "Failed to return true.", tree.isEmpty() );
+        assertNull( "Failed to return null.", tree.search( 1 ) );
+        assertNull( "Failed to return null.", tree.removeMin() );
+        assertNull( "Failed to return null.", tree.removeMax() );
+    }
+
+    /**
+     * Test method for {@link implementations.SplayTree#add(java.lang.Comparable)}
+     * to make the new element the root and reject duplicates.
+     */
+    @Test
+    public void testAdd()
+    {
+        assertTrue( "Failed to add element.", tree.add( 44 ) );
+        assertTrue( "Failed to add element.", tree.add( 22 ) );
+        assertTrue( "Failed to add element.", tree.add( 66 ) );
+        assertEquals( "New element should be the root.", 66, (int) tree.getRoot().getElement() );
+
+        assertFalse( "Duplicate should not be added.", tree.add( 22 ) );
+        assertEquals( "Found element should be the root.", 22, (int) tree.getRoot().getElement() );
+        assertEquals( "Failed to update size correctly.", 3, tree.size() );
+    }
+
+    /**
+     * Test method for {@link implementations.SplayTree#add(java.lang.Comparable)}
+     * to throw a NullPointerException when passing a null.
+     */
+    @Test
+    public void testAddForNullPointerException()
+    {
+        try
+        {
+            tree.add( null );
+            fail( "Add method failed to throw NullPointerException." );
+        }
+        catch( NullPointerException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.SplayTree#getRoot()} to throw
+     * NullPointerException when getting the root of an empty tree.
+     */
+    @Test
+    public void testGetRoot_NullPointerException()
+    {
+        try
+        {
+            tree.getRoot();
+            fail( "Failed to throw NullPointerException." );
+        }
+        catch( NullPointerException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link implementations.SplayTree#search(java.lang.Comparable)}
+     * to move the element found to the root and roughly halve the depth of the
+     * nodes on its path.
+     */
+    @Test
+    public void testSearch_SplaysToRoot()
+    {
+        for( int i = 1; i <= 1000; i++ )
+        {
+            tree.add( i );
+        }
+        assertEquals( "Sorted insertion should leave a chain.", 1000, tree.getHeight() );
+
+        assertEquals( "Failed to return the correct element.", 1, (int) tree.search( 1 ).getElement() );
+        assertEquals( "Element found should be the root.", 1, (int) tree.getRoot().getElement() );
+        assertTrue( "Splaying should shorten the path.", tree.getHeight() <= 502 );
+
+        assertNull( "Failed to return null.", tree.search( 2000 ) );
+        assertEquals( "Closest element should be the root.", 1000, (int) tree.getRoot().getElement() );
+        assertTrue( "Failed to return true.", tree.contains( 500 ) );
+        assertFalse( "Failed to return false.", tree.contains( 0 ) );
+        assertEquals( "Failed to keep the size.", 1000, tree.size() );
+    }
+
+    /**
+     * Test method for {@link implementations.SplayTree#removeMin()} and
+     * {@link implementations.SplayTree#removeMax()} to remove elements in order.
+     */
+    @Test
+    public void testRemoveMinMax()
+    {
+        int[] values = { 50, 20, 80, 10, 30, 70, 90, 60, 40 };
+        for( int value : values )
+        {
+            tree.add( value );
+        }
+
+        assertEquals( "Failed to return minimum value.", 10, (int) tree.removeMin().getElement() );
+        assertEquals( "Failed to return maximum value.", 90, (int) tree.removeMax().getElement() );
+        assertEquals( "Failed to return minimum value.", 20, (int) tree.removeMin().getElement() );
+        assertEquals( "Failed to return maximum value.", 80, (int) tree.removeMax().getElement() );
+        assertEquals( "Failed to update size.", 5, tree.size() );
+        assertOrder( "In-order iterator is out of order ", new int[] { 30, 40, 50, 60, 70 },
+                tree.inorderIterator() );
+    }
+
+    /**
+     * Test method for {@link implementations.SplayTree#remove(java.lang.Comparable)}
+     * and {@link implementations.SplayTree#removeAll(utilities.Iterator)} to remove
+     * single elements and sorted batches.
+     */
+    @Test
+    public void testRemove()
+    {
+        for( int i = 0; i < 200; i++ )
+        {
+            tree.add( i );
+        }
+
+        assertEquals( "Failed to return the removed element.", 100, (int) tree.remove( 100 ).getElement() );
+        assertNull( "Failed to return null.", tree.remove( 100 ) );
+        assertFalse( "Failed to remove element.", tree.contains( 100 ) );
+
+        SplayTree<Integer> batch = new SplayTree<Integer>();
+        for( int i = 0; i < 300; i += 3 )
+        {
+            batch.add( i );
+        }
+        assertEquals( "Failed to remove the batch.", 67, tree.removeAll( batch.inorderIterator() ) );
+        assertEquals( "Failed to update size.", 132, tree.size() );
+        assertEquals( "Failed to return minimum value.", 1, (int) tree.removeMin().getElement() );
+        assertEquals( "Failed to return maximum value.", 199, (int) tree.removeMax().getElement() );
+    }
+
+    /**
+     * Test method for the in-order, pre-order and post-order iterators of
+     * {@link implementations.SplayTree}, which must not change the shape of
+     * the tree.
+     */
+    @Test
+    public void testIterators()
+    {
+        tree.add( 11 );
+        tree.add( 33 );
+        tree.add( 22 ); // Root 22 with children 11 and 33
+
+        assertOrder( "In-order iterator is out of order ", new int[] { 11, 22, 33 }, tree.inorderIterator() );
+        assertOrder( "Preorder iterator is out of order ", new int[] { 22, 11, 33 }, tree.preorderIterator() );
+        assertOrder( "Postorder iterator is out of order ", new int[] { 11, 33, 22 }, tree.postorderIterator() );
+        assertEquals( "Iterating should not splay.", 22, (int) tree.getRoot().getElement() );
+    }
+
+    /**
+     * Test method for {@link implementations.SplayTree#levelorderIterator()} and
+     * {@link implementations.SplayTree#levelorderIterator(int)} to return the
+     * elements level by level, stopping at the maximum depth.
+     */
+    @Test
+    public void testLevelorderIterator()
+    {
+        tree.add( 11 );
+        tree.add( 33 );
+        tree.add( 22 ); // Root 22 with children 11 and 33
+        assertOrder( "Level-order iterator is out of order ", new int[] { 22, 11, 33 },
+                tree.levelorderIterator() );
+        assertOrder( "Failed to stop at the maximum depth.", new int[] { 22 }, tree.levelorderIterator( 1 ) );
+        assertOrder( "Depth 0 should return nothing.", new int[] {}, tree.levelorderIterator( 0 ) );
+    }
+
+    /**
+     * Test method for
+     * {@link implementations.SplayTree#computeIfAbsent(java.lang.Comparable, java.util.function.Supplier)}
+     * to return the stored element or create a new one.
+     */
+    @Test
+    public void testComputeIfAbsent()
+    {
+        tree.add( 22 );
+        assertEquals( "Failed to return the stored element.", 22,
+                (int) tree.computeIfAbsent( 22, () -> { throw new AssertionError( "Factory called" ); } ) );
+        assertEquals( "Failed to return the created element.", 33, (int) tree.computeIfAbsent( 33, () -> 33 ) );
+        assertEquals( "Failed to return the added element.", 11, (int) tree.getOrAdd( 11 ) );
+        assertEquals( "Failed to update size correctly.", 3, tree.size() );
+    }
+
+    /**
+     * Test method for the iterators of {@link implementations.SplayTree} to throw
+     * ConcurrentModificationException once a lookup splays another node to the
+     * root or the tree is changed, but not after a lookup of the root itself.
+     */
+    @Test
+    public void testIterators_FailFast()
+    {
+        for( int i = 0; i < 50; i++ )
+        {
+            tree.add( i );
+        }
+
+        Iterator<Integer> inorder = tree.inorderIterator();
+        assertEquals( "In-order iterator is out of order ", 0, (int) inorder.next() );
+        assertTrue( "Failed to return true.", tree.contains( 49 ) ); // Already the root - not a change
+        assertEquals( "In-order iterator is out of order ", 1, (int) inorder.next() );
+
+        Iterator<Integer> preorder = tree.preorderIterator();
+        Iterator<Integer> postorder = tree.postorderIterator();
+        Iterator<Integer> levelorder = tree.levelorderIterator();
+        assertTrue( "Failed to return true.", tree.contains( 20 ) );
+        Iterator<?>[] iterators = { inorder, preorder, postorder, levelorder };
+        for( Iterator<?> it : iterators )
+        {
+            try
+            {
+                it.next();
+                fail( "Failed to throw ConcurrentModificationException." );
+            }
+            catch( ConcurrentModificationException e )
+            {
+                assertTrue( true );
+            }
+        }
+
+        Iterator<Integer> after = tree.inorderIterator();
+        tree.removeMin();
+        try
+        {
+            after.next();
+            fail( "Failed to throw ConcurrentModificationException." );
+        }
+        catch( ConcurrentModificationException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for serializing a {@link implementations.SplayTree} to save
+     * its elements and restore them in a balanced tree.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSerialization_RoundTrip() throws Exception
+    {
+        for( int i = 0; i < 200; i++ )
+        {
+            tree.add( i );
+        }
+        tree.removeMin();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream( bytes );
+        out.writeObject( tree );
+        out.close();
+        ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) );
+        @SuppressWarnings( "unchecked" )
+        SplayTree<Integer> restored = (SplayTree<Integer>) in.readObject();
+        in.close();
+
+        assertEquals( "Failed to restore size.", 199, restored.size() );
+        assertEquals( "Failed to rebuild a balanced tree.", 8, restored.getHeight() );
+        Iterator<Integer> it = restored.inorderIterator();
+        for( int i = 1; i < 200; i++ )
+        {
+            assertEquals( "Failed to restore elements in order.", i, (int) it.next() );
+        }
+        assertTrue( "Restored tree should accept new elements.", restored.add( 0 ) );
+        assertEquals( "Failed to return minimum value.", 0, (int) restored.removeMin().getElement() );
+    }
+
+    /**
+     * Checks that an iterator returns exactly the expected elements in order.
+     *
+     * @param message the failure message
+     * @param expected the expected elements
+     * @param it the iterator to check
+     */
+    private void assertOrder( String message, int[] expected, Iterator<Integer> it )
+    {
+        for( int value : expected )
+        {
+            assertTrue( message, it.hasNext() );
+            assertEquals( message, value, (int) it.next() );
+        }
+        assertFalse( message, it.hasNext() );
+    }
+}
@@ -0,0 +1,340 @@
+package tests.unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.Word;
+
+/**
+ * Class Description: Unit tests for recording the files and lines a word
+ * appears on.
+ */
+public class WordTest {
+    // Attributes
+    private Word word;
+
+    /**
+     * Initializes a new Word instance before each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        word = new Word( "Apple" );
+    }
+
+    /**
+     * Cleans up instances used after each test.
+     *
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        word = null;
+    }
+
+    /**
+     * Test method for {@link appDomain.Word#Word(java.lang.String)} for creating a
+     * word with no occurrences.
+     */
+    @Test
+    public void testConstructor()
+    {
+        assertEquals( "Failed to store the word in lowercase.", "apple", word.getWord() );
+        assertEquals( "Failed to return correct frequency.", 0, word.getTotalFrequency() );
+        assertTrue( "Failed to return no files.", word.getFilenames().isEmpty() );
+        assertNull( "Failed to return null.", word.getLineNumbers( "a.txt" ) );
+    }
+
+    /**
+     * Test method for {@link appDomain.Word#addOccurrence(java.lang.String, int)} to
+     * record each line once per file and count every occurrence.
+     */
+    @Test
+    public void testAddOccurrence()
+    {
+        word.addOccurrence( "a.txt", 1 );
+        word.addOccurrence( "a.txt", 1 );
+        word.addOccurrence( "a.txt", 4 );
+        word.addOccurrence( "b.txt", 2 );
+        word.addOccurrence( "a.txt", 9 );
+
+        assertEquals( "Failed to count every occurrence.", 5, word.getTotalFrequency() );
+        assertEquals( "Failed to return the files.", Arrays.asList( "a.txt", "b.txt" ), word.getFilenames() );
+        assertEquals( "Failed to return the lines.", Arrays.asList( 1, 4, 9 ), word.getLineNumbers( "a.txt" ) );
+        assertEquals( "Failed to return the lines.", Arrays.asList( 2 ), word.getLineNumbers( "b.txt" ) );
+        assertEquals( "Failed to count the lines in a file.", 3, word.getFrequencyInFile( "a.txt" ) );
+        assertEquals( "Failed to return 0.", 0, word.getFrequencyInFile( "c.txt" ) );
+    }
+
+    /**
+     * Test method for {@link appDomain.Word#addOccurrence(java.lang.String, int)} to
+     * keep lines recorded out of order in ascending order without duplicates.
+     */
+    @Test
+    public void testAddOccurrence_OutOfOrder()
+    {
+        int[] lines = { 5, 2, 9, 2, 5, 1, 7, 9 };
+        for( int line : lines )
+        {
+            word.addOccurrence( "a.txt", line );
+        }
+
+        assertEquals( "Failed to count every occurrence.", 8, word.getTotalFrequency() );
+        assertEquals( "Failed to sort the lines.", Arrays.asList( 1, 2, 5, 7, 9 ), word.getLineNumbers( "a.txt" ) );
+    }
+
+    /**
+     * Test method for {@link appDomain.Word#addOccurrence(java.lang.String, int)} to
+     * keep every line when a word seen on a few lines of one file goes on to more
+     * lines and another file.
+     */
+    @Test
+    public void testAddOccurrence_ManyLinesAndFiles()
+    {
+        ArrayList<Integer> expected = new ArrayList<Integer>();
+        for( int line = 20; line >= 2; line -= 2 )
+        {
+            word.addOccurrence( "a.txt", line );
+            word.addOccurrence( "a.txt", line );
+            expected.add( 0, line );
+        }
+        assertEquals( "Failed to return the lines.", expected, word.getLineNumbers( "a.txt" ) );
+
+        word.addOccurrence( "a.txt", 11 );
+        expected.add( 5, 11 );
+        word.addOccurrence( "b.txt", 3 );
+
+        assertEquals( "Failed to count every occurrence.", 22, word.getTotalFrequency() );
+        assertEquals( "Failed to return the lines.", expected, word.getLineNumbers( "a.txt" ) );
+        assertEquals( "Failed to return the lines.", Arrays.asList( 3 ), word.getLineNumbers( "b.txt" ) );
+        assertEquals( "Failed to return the files.", Arrays.asList( "a.txt", "b.txt" ), word.getFilenames() );
+    }
+
+    /**
+     * Test method for {@link appDomain.Word#addOccurrence(java.lang.String, int)} and
+     * {@link appDomain.Word#merge(appDomain.Word)} for a word found on most lines of
+     * a file, whose lines are kept as a bitmap.
+     */
+    @Test
+    public void testAddOccurrence_DenseLines()
+    {
+        ArrayList<Integer> expected = new ArrayList<Integer>();
+        for( int line = 1; line <= 1000; line++ )
+        {
+            if( line % 3 != 0 )
+            {
+                word.addOccurrence( "a.txt", line );
+                word.addOccurrence( "a.txt", line );
+                expected.add( line );
+            }
+        }
+        word.addOccurrence( "a.txt", 3 );
+        expected.add( 2, 3 );
+        word.addOccurrence( "a.txt", 100000 );
+        expected.add( 100000 );
+
+        assertEquals( "Failed to count every occurrence.", 1336, word.getTotalFrequency() );
+        assertEquals( "Failed to return the lines.", expected, word.getLineNumbers( "a.txt" ) );
+
+        Word other = new Word( "apple" );
+        for( int line = 3; line <= 1200; line += 3 )
+        {
+            other.addOccurrence( "a.txt", line );
+        }
+        word.merge( other );
+        assertEquals( "Failed to merge the lines.", 1068, word.getFrequencyInFile( "a.txt" ) );
+        assertEquals( "Failed to merge the lines.", Arrays.asList( 1200, 100000 ),
+                word.getLineNumbers( "a.txt" ).subList( 1066, 1068 ) );
+    }
+
+    /**
+     * Test method for {@link appDomain.Word#getFileLocations()} and
+     * {@link appDomain.Word#getLineNumbers(java.lang.String)} to return copies that
+     * do not change the word.
+     */
+    @Test
+    public void testAccessors_AreViews()
+    {
+        word.addOccurrence( "a.txt", 1 );
+        word.addOccurrence( "b.txt", 3 );
+
+        HashMap<String, ArrayList<Integer>> locations = word.getFileLocations();
+        assertEquals( "Failed to return every file.", 2, locations.size() );
+        assertEquals( "Failed to return the lines.", Arrays.asList( 3 ), locations.get( "b.txt" ) );
+
+        locations.clear();
+        word.getLineNumbers( "a.txt" ).add( 99 );
+        assertEquals( "Changing a view should not change the word.", Arrays.asList( 1 ),
+                word.getLineNumbers( "a.txt" ) );
+        assertEquals( "Changing a view should not change the word.", 2, word.getFilenames().size() );
+    }
+
+    /**
+     * Test method for {@link appDomain.Word#merge(appDomain.Word)} to combine the
+     * files and lines of two words.
+     */
+    @Test
+    public void testMerge()
+    {
+        word.addOccurrence( "a.txt", 1 );
+        word.addOccurrence( "a.txt", 5 );
+        Word other = new Word( "apple" );
+        other.addOccurrence( "a.txt", 3 );
+        other.addOccurrence( "a.txt", 5 );
+        other.addOccurrence( "b.txt", 2 );
+
+        assertSame( "Failed to return this word.", word, word.merge( other ) );
+        assertEquals( "Failed to add the frequencies.", 5, word.getTotalFrequency() );
+        assertEquals( "Failed to merge the lines.", Arrays.asList( 1, 3, 5 ), word.getLineNumbers( "a.txt" ) );
+        assertEquals( "Failed to add the file.", Arrays.asList( 2 ), word.getLineNumbers( "b.txt" ) );
+
+        other.addOccurrence( "b.txt", 8 );
+        assertEquals( "Merged lines should not be shared.", Arrays.asList( 2 ), word.getLineNumbers( "b.txt" ) );
+
+        try
+        {
+            word.merge( new Word( "banana" ) );
+            fail( "Failed to throw IllegalArgumentException." );
+        }
+        catch( IllegalArgumentException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    /**
+     * Test method for {@link appDomain.Word#toStringComplete()} to report the files
+     * and lines in the order they were recorded.
+     */
+    @Test
+    public void testToStringComplete()
+    {
+        word.addOccurrence( "a.txt", 1 );
+        word.addOccurrence( "a.txt", 2 );
+        word.addOccurrence( "b.txt", 3 );
+
+        assertEquals( "Failed to format the report.",
+                "===apple=== number of entries: 3 found in file: a.txt on lines: 1,2, found in file: b.txt on lines: 3,",
+                word.toStringComplete() );
+        assertEquals( "Failed to format the report.", "Key = ===apple=== found in file: a.txt, b.txt",
+                word.toStringFiles() );
+    }
+
+    /**
+     * Test method for {@link appDomain.Word#getFilenames()} and
+     * {@link appDomain.Word#merge(appDomain.Word)} to keep the files in the order
+     * the word was first found in them, whatever order other words met them in.
+     */
+    @Test
+    public void testFilenames_FirstFoundOrder()
+    {
+        Word before = new Word( "banana" );
+        before.addOccurrence( "order-c.txt", 1 );
+        before.addOccurrence( "order-b.txt", 1 );
+
+        word.addOccurrence( "order-a.txt", 2 );
+        word.addOccurrence( "order-b.txt", 3 );
+        word.addOccurrence( "order-c.txt", 4 );
+        assertEquals( "Failed to keep the files in order.", Arrays.asList( "order-a.txt", "order-b.txt", "order-c.txt" ),
+                word.getFilenames() );
+
+        Word other = new Word( "apple" );
+        other.addOccurrence( "order-d.txt", 5 );
+        other.addOccurrence( "order-c.txt", 1 );
+        word.merge( other );
+        assertEquals( "Failed to keep the files in order.",
+                Arrays.asList( "order-a.txt", "order-b.txt", "order-c.txt", "order-d.txt" ), word.getFilenames() );
+        assertEquals( "Failed to merge the lines.", Arrays.asList( 1, 4 ), word.getLineNumbers( "order-c.txt" ) );
+        assertEquals( "Failed to format the report.",
+                "Key = ===apple=== found in file: order-a.txt, order-b.txt, order-c.txt, order-d.txt",
+                word.toStringFiles() );
+    }
+
+    /**
+     * Test method for serializing a {@link appDomain.Word} to save its files and
+     * lines, restoring the files in the order the word was first found in them
+     * even when the filenames were first met in the opposite order.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSerialization_RoundTrip() throws Exception
+    {
+        Word before = new Word( "cherry" );
+        before.addOccurrence( "saved-b.txt", 1 );
+        before.addOccurrence( "saved-a.txt", 1 );
+
+        word.addOccurrence( "saved-a.txt", 1 );
+        word.addOccurrence( "saved-a.txt", 7 );
+        word.addOccurrence( "saved-b.txt", 2 );
+        Word other = new Word( "banana" );
+        other.addOccurrence( "saved-b.txt", 4 );
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream( bytes );
+        out.writeObject( word );
+        out.writeObject( other );
+        out.close();
+        ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) );
+        Word restored = (Word) in.readObject();
+        Word restoredOther = (Word) in.readObject();
+        in.close();
+
+        assertEquals( "Failed to restore the word.", word, restored );
+        assertEquals( "Failed to restore the frequency.", 3, restored.getTotalFrequency() );
+        assertEquals( "Failed to restore the files in order.", Arrays.asList( "saved-a.txt", "saved-b.txt" ),
+                restored.getFilenames() );
+        assertEquals( "Failed to restore the report.", word.toStringComplete(), restored.toStringComplete() );
+        assertEquals( "Failed to restore the lines.", Arrays.asList( 4 ), restoredOther.getLineNumbers( "saved-b.txt" ) );
+
+        restored.addOccurrence( "c.txt", 1 );
+        assertEquals( "Restored word should accept new files.", 3, restored.getFilenames().size() );
+    }
+
+    /**
+     * Test method for deserializing a {@link appDomain.Word} saved by an earlier
+     * version with a map of files to line lists, reporting its files in the same
+     * order that version did.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSerialization_EarlierVersion() throws Exception
+    {
+        // "Apple" found on lines 1, 4 and 4 of old-a.txt and line 2 of old-b.txt
+        String saved = "rO0ABXNyAA5hcHBEb21haW4uV29yZAAAAAAAAAABAgADSQAOdG90YWxGcmVxdWVuY3lMAA1maWxlTG9jYXRpb25zdAATTGphdmEv"
+                + "dXRpbC9IYXNoTWFwO0wABHdvcmR0ABJMamF2YS9sYW5nL1N0cmluZzt4cAAAAARzcgARamF2YS51dGlsLkhhc2hNYXAFB9rBwxZg"
+                + "0QMAAkYACmxvYWRGYWN0b3JJAAl0aHJlc2hvbGR4cD9AAAAAAAAMdwgAAAAQAAAAAnQACW9sZC1iLnR4dHNyABNqYXZhLnV0aWwu"
+                + "QXJyYXlMaXN0eIHSHZnHYZ0DAAFJAARzaXpleHAAAAABdwQAAAABc3IAEWphdmEubGFuZy5JbnRlZ2VyEuKgpPeBhzgCAAFJAAV2"
+                + "YWx1ZXhyABBqYXZhLmxhbmcuTnVtYmVyhqyVHQuU4IsCAAB4cAAAAAJ4dAAJb2xkLWEudHh0c3EAfgAHAAAAAncEAAAAAnNxAH4A"
+                + "CQAAAAFzcQB+AAkAAAAEeHh0AAVhcHBsZQ==";
+        ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( Base64.getDecoder().decode( saved ) ) );
+        Word restored = (Word) in.readObject();
+        in.close();
+
+        assertEquals( "Failed to restore the word.", word, restored );
+        assertEquals( "Failed to restore the frequency.", 4, restored.getTotalFrequency() );
+        assertEquals( "Failed to restore the report.",
+                "===apple=== number of entries: 4 found in file: old-b.txt on lines: 2, found in file: old-a.txt on lines: 1,4,",
+                restored.toStringComplete() );
+
+        restored.addOccurrence( "old-a.txt", 9 );
+        assertEquals( "Restored word should accept new lines.", Arrays.asList( 1, 4, 9 ),
+                restored.getLineNumbers( "old-a.txt" ) );
+    }
+}
\ No newline at end of file
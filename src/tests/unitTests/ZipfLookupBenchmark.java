@@ -0,0 +1,167 @@
+package tests.unitTests;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import implementations.ArrayBSTree;
+import implementations.BSTree;
+import implementations.BTree;
+import implementations.SplayTree;
+import utilities.BSTreeADT;
+
+/**
+ * Benchmark measuring the cost of the word lookups made by WordTracker on
+ * skewed text. Every token of a corpus is looked up or added with
+ * computeIfAbsent, as processInputFile does, and the comparisons made per token
+ * are counted for each BSTreeADT implementation, together with the time taken.
+ *
+ * The corpora are the text files given on the command line (by default the
+ * test-files folder), followed by a synthetic corpus whose word frequencies
+ * follow Zipf's law, since natural text is too small here to show the effect.
+ *
+ * Usage: java tests.unitTests.ZipfLookupBenchmark [file ...]
+ */
+public class ZipfLookupBenchmark {
+    private static final int VOCABULARY_SIZE = 50000;
+    private static final int SYNTHETIC_TOKENS = 2000000;
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    public static void main(String[] args) throws IOException {
+        String[] files = args.length > 0 ? args
+                : new String[] { "test-files/test1.txt", "test-files/test2.txt", "test-files/test3.txt" };
+
+        System.out.println("=== Zipfian Word Lookup Benchmark ===\n");
+
+        List<String> fileTokens = new ArrayList<String>();
+        for (String file : files) {
+            fileTokens.addAll(readTokens(file));
+        }
+        run("Files " + Arrays.toString(files), fileTokens.toArray(new String[0]));
+
+        run("Synthetic Zipf (s = " + ZIPF_EXPONENT + ", vocabulary " + VOCABULARY_SIZE + ")",
+                zipfTokens(new Random(42), VOCABULARY_SIZE, SYNTHETIC_TOKENS, ZIPF_EXPONENT));
+    }
+
+    /**
+     * Feeds a corpus through each tree and prints the comparisons and time per token
+     * @param name the name of the corpus
+     * @param tokens the words of the corpus in order
+     */
+    private static void run(String name, String[] tokens) {
+        int distinct = new HashSet<String>(Arrays.asList(tokens)).size();
+        System.out.println(name);
+        System.out.printf("%d tokens, %d distinct words, log2(distinct) = %.2f%n", tokens.length, distinct,
+                Math.log(Math.max(distinct, 1)) / Math.log(2));
+
+        Map<String, Supplier<BSTreeADT<String>>> trees = new LinkedHashMap<String, Supplier<BSTreeADT<String>>>();
+        trees.put("BSTree (self-balancing)", () -> new BSTree<String>(true));
+        trees.put("ArrayBSTree", () -> new ArrayBSTree<String>());
+        trees.put("BTree (t = 32)", () -> new BTree<String>());
+        trees.put("SplayTree", () -> new SplayTree<String>());
+
+        System.out.printf("%-26s %8s %14s %12s%n", "Tree", "Height", "Compares/token", "ns/token");
+        for (Map.Entry<String, Supplier<BSTreeADT<String>>> entry : trees.entrySet()) {
+            BSTreeADT<String> tree = entry.getValue().get();
+            CountingKey key = new CountingKey();
+            for (String token : tokens) {
+                key.word = token;
+                tree.computeIfAbsent(key, () -> key.word);
+            }
+            double compares = tokens.length == 0 ? 0 : (double) key.comparisons / tokens.length;
+
+            double best = Double.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                tree = entry.getValue().get();
+                long start = System.nanoTime();
+                for (String token : tokens) {
+                    tree.getOrAdd(token);
+                }
+                best = Math.min(best, (double) (System.nanoTime() - start) / Math.max(tokens.length, 1));
+            }
+            System.out.printf("%-26s %8d %14.2f %12.1f%n", entry.getKey(), tree.getHeight(), compares, best);
+        }
+        System.out.println();
+    }
+
+    /**
+     * Reads the words of a text file, cleaned and split as WordTracker does
+     * @param file the path of the file
+     * @return the words in order
+     * @throws IOException if the file cannot be read
+     */
+    private static List<String> readTokens(String file) throws IOException {
+        List<String> tokens = new ArrayList<String>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String cleaned = line.replaceAll("[^a-zA-Z0-9\\s]", "").toLowerCase().trim();
+                if (cleaned.isEmpty()) {
+                    continue;
+                }
+                tokens.addAll(Arrays.asList(cleaned.split("\\s+")));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Generates a corpus of random words whose frequencies follow Zipf's law.
+     * The rank of a word is unrelated to its alphabetical position.
+     * @param random the source of randomness
+     * @param vocabularySize the number of distinct words
+     * @param count the number of tokens to generate
+     * @param exponent the Zipf exponent; the word of rank k has weight 1 / k^exponent
+     * @return the tokens in order
+     */
+    private static String[] zipfTokens(Random random, int vocabularySize, int count, double exponent) {
+        HashSet<String> seen = new HashSet<String>();
+        String[] vocabulary = new String[vocabularySize];
+        for (int i = 0; i < vocabularySize;) {
+            int length = 3 + random.nextInt(8);
+            StringBuilder sb = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            if (seen.add(sb.toString())) {
+                vocabulary[i++] = sb.toString();
+            }
+        }
+
+        double[] cumulative = new double[vocabularySize];
+        double total = 0;
+        for (int rank = 0; rank < vocabularySize; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+
+        String[] tokens = new String[count];
+        for (int i = 0; i < count; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            tokens[i] = vocabulary[Math.min(rank < 0 ? -rank - 1 : rank, vocabularySize - 1)];
+        }
+        return tokens;
+    }
+
+    /**
+     * Search key that counts how many times the trees compare it
+     */
+    private static class CountingKey implements Comparable<String> {
+        private String word;
+        private long comparisons;
+
+        @Override
+        public int compareTo(String other) {
+            comparisons++;
+            return word.compareTo(other);
+        }
+    }
+}
@@ -4,6 +4,7 @@
 package utilities;
 
 import java.io.Serializable;
+import java.util.function.Supplier;
 
 import implementations.BSTreeNode;
 
@@ -86,6 +87,35 @@ public interface BSTreeADT<E extends Comparable<? super E>> extends	Serializable
      */
     public boolean add( E newEntry ) throws NullPointerException;
 
+    /**
+     * Retrieves the element in the tree that is equal to the one passed in, adding
+     * the element passed in if no equal element is stored. The search and the
+     * insertion share a single walk down the tree.
+     *
+     * @param newEntry the element to find, or to add if it is not in the tree
+     * @return the element already stored in the tree, or newEntry if it was added
+     * @throws NullPointerException if the element being passed in is null
+     */
+    public E getOrAdd( E newEntry ) throws NullPointerException;
+
+    /**
+     * Retrieves the element in the tree that compares equal to the key passed in.
+     * If no such element is stored, the factory is called once to create one and
+     * the new element is added where the search ended, so the search and the
+     * insertion share a single walk down the tree. This allows the caller to look
+     * up an element without first building a throwaway instance of it.
+     *
+     * @param key a key ordered consistently with the elements, compared against
+     *            the elements stored in the tree
+     * @param factory creates the element to add when the key is not found; the
+     *            created element must compare equal to the key
+     * @return the element already stored in the tree, or the newly added element
+     * @throws NullPointerException if the key or factory is null, or the factory
+     *             creates a null element
+     */
+    public E computeIfAbsent( Comparable<? super E> key, Supplier<? extends E> factory )
+            throws NullPointerException;
+
     /**
      * Removes the smallest element in the tree according to the natural ordering
      * established by the Comparable implementation.
@@ -102,6 +132,29 @@ public interface BSTreeADT<E extends Comparable<? super E>> extends	Serializable
      */
     public BSTreeNode<E> removeMax();
 
+    /**
+     * Removes the element in the tree that is equal to the one passed in. A
+     * self-balancing tree stays balanced after the removal.
+     *
+     * @param entry the element to remove
+     * @return the removed element or null if the element is not in the tree
+     * @throws NullPointerException if the element being passed in is null
+     */
+    public BSTreeNode<E> remove( E entry ) throws NullPointerException;
+
+    /**
+     * Removes a batch of elements given in their natural order. Elements that are
+     * not in the tree are ignored, as are repeated elements. The whole batch is
+     * checked before anything is removed, so an invalid batch leaves the tree
+     * unchanged.
+     *
+     * @param entries iterator over the elements to remove in ascending order
+     * @return the number of elements removed from the tree
+     * @throws NullPointerException if the iterator or any element is null
+     * @throws IllegalArgumentException if the elements are not in ascending order
+     */
+    public int removeAll( Iterator<E> entries ) throws NullPointerException, IllegalArgumentException;
+
     /**
      * Generates an in-order iteration over the contents of the tree. Elements are
      * in their natural order.
@@ -125,4 +178,25 @@ public interface BSTreeADT<E extends Comparable<? super E>> extends	Serializable
      * @return an iterator with the elements in a root element last order
      */
     public Iterator<E> postorderIterator();
+
+    /**
+     * Generates a level-order (breadth-first) iteration over the contents of the
+     * tree. Elements are returned level by level from the root down, and from
+     * left to right within each level.
+     *
+     * @return an iterator with the elements in level order
+     */
+    public Iterator<E> levelorderIterator();
+
+    /**
+     * Generates a level-order iteration over the top levels of the tree. Nodes
+     * below the last level are never visited, so sampling the top of a large
+     * tree costs only as much as the levels returned.
+     *
+     * @param maxDepth the number of levels to return, where 1 returns only the
+     *            root and 0 returns nothing
+     * @return an iterator with the elements of the top levels in level order
+     * @throws IllegalArgumentException if maxDepth is negative
+     */
+    public Iterator<E> levelorderIterator( int maxDepth ) throws IllegalArgumentException;
 }
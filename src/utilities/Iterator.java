@@ -6,10 +6,9 @@ import java.util.NoSuchElementException;
  * This interface will provide an mono-directional iterator for any of the data
  * structures that are specified in this package. The implementor is only
  * responsible for the simple methods. A more functional iterator is available
- * in the <code>java.util</code> package. This iterator makes a copy of the
- * collection of elements and performs a complete walk through the data
- * structure. Note that the copy must be a deep copy, so methods such as clone()
- * should not be used.
+ * in the <code>java.util</code> package. This iterator performs a complete walk
+ * through the data structure, producing each element as the walk advances
+ * rather than copying the collection of elements up front.
  *
  * @param <E> The type of element this iterator returns.
  */